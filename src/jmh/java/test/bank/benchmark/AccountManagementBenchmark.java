@@ -0,0 +1,47 @@
+package test.bank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import test.bank.domain.banking.BankAccount;
+import test.bank.service.AccountManagementServiceImpl;
+import test.bank.service.AccountNumberGeneratorServiceImpl;
+import test.bank.service.AccountTransactionsServiceImpl;
+import test.bank.service.ContentionProfiler;
+import test.bank.service.StripedBalanceServiceImpl;
+import test.bank.service.TransactionMetrics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountManagementBenchmark {
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    private Map<String, BankAccount> accounts;
+    private AccountManagementServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        accounts = InMemoryRepositories.accounts();
+        var bankAccountRepository = InMemoryRepositories.bankAccountRepository(accounts);
+        var stripedBalanceService = new StripedBalanceServiceImpl(bankAccountRepository, InMemoryRepositories.bankAccountBucketRepository(), null);
+        var accountTransactionsService = new AccountTransactionsServiceImpl(InMemoryRepositories.bankTransactionRepository(), bankAccountRepository, null, stripedBalanceService,
+                new TransactionMetrics(new SimpleMeterRegistry(), new ContentionProfiler(16, 128)));
+        var accountNumberGeneratorService = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 16, 42);
+        service = new AccountManagementServiceImpl(bankAccountRepository, accountNumberGeneratorService, accountTransactionsService, null, stripedBalanceService);
+    }
+
+    @Benchmark
+    public BankAccount createBankAccount() {
+        var account = service.createBankAccount(INITIAL_BALANCE);
+        // created accounts are dropped so the map does not grow over the run
+        accounts.remove(account.getAccountNumber());
+        return account;
+    }
+}
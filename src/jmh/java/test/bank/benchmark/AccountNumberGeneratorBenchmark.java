@@ -0,0 +1,34 @@
+package test.bank.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import test.bank.service.AccountNumberGeneratorServiceImpl;
+
+import java.math.BigInteger;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+    private AccountNumberGeneratorServiceImpl generator;
+
+    @Setup
+    public void setUp() {
+        // the sequence round trip happens once per block, an in-memory counter stands in for it
+        generator = new AccountNumberGeneratorServiceImpl(InMemoryRepositories.bankAccountRepository(InMemoryRepositories.accounts()), 16, 42);
+    }
+
+    @Benchmark
+    public String uuidBased() {
+        return String.format("%010d", new BigInteger(UUID.randomUUID().toString().replace("-", ""), 16)).substring(0, 16);
+    }
+
+    @Benchmark
+    public String permutedSequence() {
+        return generator.generateAccountNumber();
+    }
+}
@@ -0,0 +1,58 @@
+package test.bank.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+import test.bank.service.AccountTransactionsServiceImpl;
+import test.bank.service.ContentionProfiler;
+import test.bank.service.StripedBalanceServiceImpl;
+import test.bank.service.TransactionMetrics;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountTransactionsBenchmark {
+    private static final String SENDER = "0001110001110001";
+    private static final String RECEIVER = "0001110001110002";
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private AccountTransactionsServiceImpl service;
+
+    // balances are reset every iteration so withdrawals never run out of money
+    @Setup(Level.Iteration)
+    public void setUp() {
+        var accounts = InMemoryRepositories.accounts();
+        var bankAccountRepository = InMemoryRepositories.bankAccountRepository(accounts);
+        var stripedBalanceService = new StripedBalanceServiceImpl(bankAccountRepository, InMemoryRepositories.bankAccountBucketRepository(), null);
+        bankAccountRepository.save(new BankAccount(UUID.randomUUID(), new BigDecimal("1000000000000.00"), SENDER));
+        bankAccountRepository.save(new BankAccount(UUID.randomUUID(), new BigDecimal("1000000000000.00"), RECEIVER));
+        // transactions are not applied through Spring here, so there is no transaction or lock overhead in the numbers
+        service = new AccountTransactionsServiceImpl(InMemoryRepositories.bankTransactionRepository(), bankAccountRepository, null, stripedBalanceService,
+                new TransactionMetrics(new SimpleMeterRegistry(), new ContentionProfiler(16, 128)));
+    }
+
+    @Benchmark
+    public TransferTransaction transfer() {
+        return service.transfer(SENDER, RECEIVER, AMOUNT);
+    }
+
+    @Benchmark
+    public WithdrawTransaction withdraw() {
+        return service.withdraw(SENDER, AMOUNT);
+    }
+
+    @Benchmark
+    public DepositTransaction deposit() {
+        return service.deposit(RECEIVER, AMOUNT);
+    }
+}
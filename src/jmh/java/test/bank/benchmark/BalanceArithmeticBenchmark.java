@@ -0,0 +1,75 @@
+package test.bank.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// The balance check and update of one transfer, as the services did it on BigDecimal and as they do it on cents.
+// Run with -PjmhIncludes=BalanceArithmetic, gc.alloc.rate.norm of transferMinorUnits should stay at 0
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceArithmeticBenchmark {
+    private BigDecimal senderBalance;
+    private BigDecimal receiverBalance;
+    private BigDecimal amount;
+    private BankAccount sender;
+    private BankAccount receiver;
+    private long amountMinorUnits;
+    private BigDecimal decimal;
+    private Money money;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        senderBalance = new BigDecimal("1000000000.00");
+        receiverBalance = new BigDecimal("0.00");
+        amount = new BigDecimal("1.25");
+        sender = new BankAccount(senderBalance, "0001110001110001");
+        receiver = new BankAccount(receiverBalance, "0001110001110002");
+        amountMinorUnits = Money.toMinorUnits(amount);
+        decimal = new BigDecimal("1234.50");
+        money = Money.ofMinorUnits(123450);
+    }
+
+    // every call sends the money back the other way, so the check always passes however many calls an
+    // iteration makes instead of measuring the insufficient funds return once the sender runs dry
+    @Benchmark
+    public boolean transferBigDecimal() {
+        if (senderBalance.subtract(amount).compareTo(BigDecimal.ZERO) < 0) {
+            return false;
+        }
+        var debited = senderBalance.subtract(amount);
+        senderBalance = receiverBalance.add(amount);
+        receiverBalance = debited;
+        return true;
+    }
+
+    @Benchmark
+    public boolean transferMinorUnits() {
+        if (!sender.covers(amountMinorUnits)) {
+            return false;
+        }
+        sender.debit(amountMinorUnits);
+        receiver.credit(amountMinorUnits);
+        var debited = sender;
+        sender = receiver;
+        receiver = debited;
+        return true;
+    }
+
+    @Benchmark
+    public String formatBigDecimal() {
+        return decimal.setScale(Money.SCALE).toPlainString();
+    }
+
+    @Benchmark
+    public String formatMinorUnits() {
+        return money.toString();
+    }
+}
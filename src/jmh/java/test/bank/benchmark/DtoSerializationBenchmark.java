@@ -0,0 +1,99 @@
+package test.bank.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// The *BeanSerializer variants encode the same content the way the dtos were written before their custom
+// serializers: reflective bean serialization with @JsonFormat on BigDecimal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private BankAccountResponseDto bankAccount;
+    private TransactionResponseDto transaction;
+    private TransferTransactionResponseDto transferTransaction;
+    private List<BankAccountResponseDto> bankAccounts;
+    private LegacyBankAccount legacyBankAccount;
+    private LegacyTransferTransaction legacyTransferTransaction;
+    private List<LegacyBankAccount> legacyBankAccounts;
+
+    @Setup
+    public void setUp() {
+        // same defaults Spring Boot applies to the mapper used by the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bankAccount = BankAccountResponseDto.of(new BankAccount(UUID.randomUUID(), new BigDecimal("1234.50"), "0001110001110001"));
+        transaction = new TransactionResponseDto(System.currentTimeMillis(), new BigDecimal("10.00"), "0001110001110001", MoneyFlow.IN);
+        transferTransaction = new TransferTransactionResponseDto(System.currentTimeMillis(), new BigDecimal("10.00"), "0001110001110001", MoneyFlow.OUT, "0001110001110002");
+        bankAccounts = IntStream.range(0, 100)
+                .mapToObj(i -> BankAccountResponseDto.of(new BankAccount(UUID.randomUUID(), BigDecimal.valueOf(i), String.format("%016d", i))))
+                .toList();
+        legacyBankAccount = new LegacyBankAccount(UUID.randomUUID(), new BigDecimal("1234.50"), "0001110001110001");
+        legacyTransferTransaction = new LegacyTransferTransaction(System.currentTimeMillis(), new BigDecimal("10.00"), "0001110001110001", MoneyFlow.OUT, "0001110001110002");
+        legacyBankAccounts = IntStream.range(0, 100)
+                .mapToObj(i -> new LegacyBankAccount(UUID.randomUUID(), BigDecimal.valueOf(i), String.format("%016d", i)))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] bankAccount() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bankAccount);
+    }
+
+    @Benchmark
+    public byte[] transaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] transferTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transferTransaction);
+    }
+
+    @Benchmark
+    public byte[] bankAccountList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bankAccounts);
+    }
+
+    @Benchmark
+    public byte[] bankAccountBeanSerializer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(legacyBankAccount);
+    }
+
+    @Benchmark
+    public byte[] transferTransactionBeanSerializer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(legacyTransferTransaction);
+    }
+
+    @Benchmark
+    public byte[] bankAccountListBeanSerializer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(legacyBankAccounts);
+    }
+
+    public record LegacyBankAccount(UUID id,
+                                    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal balance,
+                                    String accountNumber) {
+    }
+
+    public record LegacyTransferTransaction(Long timestamp,
+                                            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00") BigDecimal amount,
+                                            String bankAccountNumber, MoneyFlow flow, String visavisAccountNumber) {
+    }
+}
@@ -0,0 +1,79 @@
+package test.bank.benchmark;
+
+import test.bank.domain.banking.BankAccount;
+import test.bank.repository.BankAccountBucketRepository;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Map backed stand-ins for the Spring Data repositories, implementing only the methods the services call,
+// so benchmarks measure service CPU and allocation cost without a database.
+public class InMemoryRepositories {
+    public static BankAccountRepository bankAccountRepository(Map<String, BankAccount> accounts) {
+        var sequence = new AtomicLong(1);
+        return proxy(BankAccountRepository.class, (method, args) -> switch (method) {
+            case "findByAccountNumber", "getByAccountNumber" -> Optional.ofNullable(accounts.get((String) args[0]));
+            case "getAllByAccountNumberInOrderById" -> ((Collection<?>) args[0]).stream()
+                    .map(accounts::get)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(BankAccount::getId))
+                    .toList();
+            case "save" -> {
+                var account = (BankAccount) args[0];
+                if (account.getId() == null) {
+                    account.setId(UUID.randomUUID());
+                }
+                accounts.put(account.getAccountNumber(), account);
+                yield account;
+            }
+            case "reserveAccountNumberBlock" -> sequence.getAndAdd(100);
+            case "findAccountNumberBlockSize" -> 100L;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    public static BankTransactionRepository bankTransactionRepository() {
+        // ledger rows are dropped, keeping them would make the heap grow with every invocation
+        return proxy(BankTransactionRepository.class, (method, args) -> switch (method) {
+            case "save" -> args[0];
+            case "saveAll" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    // benchmark accounts are never striped, so no bucket query is expected
+    public static BankAccountBucketRepository bankAccountBucketRepository() {
+        return proxy(BankAccountBucketRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    public static Map<String, BankAccount> accounts() {
+        return new ConcurrentHashMap<>();
+    }
+
+    private static <T> T proxy(Class<T> repositoryType, Handler handler) {
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "in-memory " + repositoryType.getSimpleName();
+                    default -> handler.invoke(method.getName(), args);
+                }));
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+}
@@ -0,0 +1,88 @@
+package test.bank.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.dto.request.transaction.TransferBatchRequestDto;
+import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.transaction.StatementEntryResponseDto;
+import test.bank.dto.response.transaction.StatementPageResponseDto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// JSON against CBOR for the payloads of batch partners: a 1000 transfer batch request and a full statement page.
+// Payload sizes are reported as the batchRequestBytes and statementPageBytes counters of the encode benchmarks
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private TransferBatchRequestDto batch;
+    private StatementPageResponseDto statement;
+    private byte[] encodedBatch;
+    private byte[] encodedStatement;
+
+    @Setup
+    public void setUp() throws IOException {
+        // the builders Spring uses for the JSON and the CBOR message converters
+        objectMapper = format.equals("cbor") ? Jackson2ObjectMapperBuilder.cbor().build() : Jackson2ObjectMapperBuilder.json().build();
+        batch = new TransferBatchRequestDto(IntStream.range(0, 1000)
+                .mapToObj(i -> new TransferTransactionRequestDto(String.format("%016d", i), String.format("%016d", i + 1), BigDecimal.valueOf(i + 1, 2)))
+                .toList());
+        statement = new StatementPageResponseDto(IntStream.range(0, 1000)
+                .mapToObj(i -> new StatementEntryResponseDto(UUID.randomUUID(), System.currentTimeMillis(), Money.ofMinorUnits(i + 1),
+                        i % 2 == 0 ? MoneyFlow.IN : MoneyFlow.OUT, "TRANSFER", String.format("%016d", i)))
+                .toList(), UUID.randomUUID().toString());
+        encodedBatch = objectMapper.writeValueAsBytes(batch);
+        encodedStatement = objectMapper.writeValueAsBytes(statement);
+    }
+
+    @Benchmark
+    public byte[] encodeBatchRequest(BatchRequestSize size) throws IOException {
+        var encoded = objectMapper.writeValueAsBytes(batch);
+        size.batchRequestBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public TransferBatchRequestDto decodeBatchRequest() throws IOException {
+        return objectMapper.readValue(encodedBatch, TransferBatchRequestDto.class);
+    }
+
+    @Benchmark
+    public byte[] encodeStatement(StatementPageSize size) throws IOException {
+        var encoded = objectMapper.writeValueAsBytes(statement);
+        size.statementPageBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public StatementPageResponseDto decodeStatement() throws IOException {
+        return objectMapper.readValue(encodedStatement, StatementPageResponseDto.class);
+    }
+
+    // EVENTS counters are reported as they are, so the field holds the size rather than a rate
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BatchRequestSize {
+        public long batchRequestBytes;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementPageSize {
+        public long statementPageBytes;
+    }
+}
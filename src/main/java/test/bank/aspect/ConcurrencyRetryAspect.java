@@ -0,0 +1,98 @@
+package test.bank.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.exception.BankApplicationConcurrencyException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Aspect
+@Component
+// runs outside the transaction interceptor (lowest precedence), so every attempt gets a fresh transaction
+@Order(0)
+public class ConcurrencyRetryAspect {
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+
+    public ConcurrencyRetryAspect(MeterRegistry meterRegistry,
+                                  @Value("${app.bank.retry.max-attempts:4}") int maxAttempts,
+                                  @Value("${app.bank.retry.initial-backoff-ms:20}") long initialBackoffMillis,
+                                  @Value("${app.bank.retry.max-backoff-ms:500}") long maxBackoffMillis,
+                                  @Value("${app.bank.retry.deadline-ms:5000}") long deadlineMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    @Around("@within(test.bank.aspect.RetryOnConcurrencyFailure) || @annotation(test.bank.aspect.RetryOnConcurrencyFailure)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // inside a caller's transaction the failed attempt has already marked it rollback-only, the caller has to retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        var operation = joinPoint.getSignature().getName();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isConcurrencyFailure(e)) {
+                    throw e;
+                }
+
+                long backoffMillis = backoffMillis(attempt);
+                boolean pastDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline;
+                if (attempt >= maxAttempts || pastDeadline) {
+                    counter("bank.transaction.retry.exhausted", operation, e).increment();
+                    log.warn("[retry] {} gave up after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw new BankApplicationConcurrencyException("concurrent update conflict, giving up after " + attempt + " attempts", e);
+                }
+
+                counter("bank.transaction.retries", operation, e).increment();
+                Thread.sleep(backoffMillis);
+            }
+        }
+    }
+
+    // full jitter: uniform in [0, min(max, initial * 2^(attempt - 1))], keeps retrying callers from moving in lockstep
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String operation, Throwable failure) {
+        return meterRegistry.counter(name, "operation", operation, "exception", failure.getClass().getSimpleName());
+    }
+
+    private static boolean isConcurrencyFailure(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException
+                    || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
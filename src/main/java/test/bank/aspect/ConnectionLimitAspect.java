@@ -0,0 +1,61 @@
+package test.bank.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.exception.BankApplicationConcurrencyException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// With virtual threads every request gets a thread, so thousands of them can reach the service layer at once and
+// queue inside Hikari for the connection timeout. This admits at most as many transactions as the pool has
+// connections, in arrival order, and turns a long wait into a 503 with Retry-After instead of a piled up queue.
+@Slf4j
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.bank.connection-limit.enabled", havingValue = "true")
+// inside the retry aspect so a backoff sleep does not hold a permit, outside the transaction interceptor so the
+// permit is taken before the connection
+@Order(1)
+public class ConnectionLimitAspect {
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+
+    public ConnectionLimitAspect(MeterRegistry meterRegistry,
+                                 @Value("${app.bank.connection-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                                 @Value("${app.bank.connection-limit.acquire-timeout-ms:3000}") long acquireTimeoutMillis) {
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.rejected = meterRegistry.counter("bank.connection-limit.rejected");
+        Gauge.builder("bank.connection-limit.waiting", this.permits, Semaphore::getQueueLength).register(meterRegistry);
+    }
+
+    @Around("within(test.bank..*) && @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        // nested calls run on the connection of the outer transaction
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            log.warn("[connection-limit] {} waited {} ms for a connection permit", joinPoint.getSignature().getName(), acquireTimeoutMillis);
+            throw new BankApplicationConcurrencyException("connection pool is busy, retry later");
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+}
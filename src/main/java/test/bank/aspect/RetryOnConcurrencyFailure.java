@@ -0,0 +1,12 @@
+package test.bank.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Repeats the whole call, including its transaction, when it fails on a lock timeout, deadlock or serialization failure.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConcurrencyFailure {
+}
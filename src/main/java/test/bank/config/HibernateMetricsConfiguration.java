@@ -0,0 +1,20 @@
+package test.bank.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import test.bank.service.PhaseTimingSessionListener;
+import test.bank.service.PhaseTimingStatementInspector;
+
+// Hooks the write phase timers of TransactionMetrics into Hibernate's JDBC calls
+@Configuration
+public class HibernateMetricsConfiguration {
+    @Bean
+    public HibernatePropertiesCustomizer phaseTimingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new PhaseTimingStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, PhaseTimingSessionListener.class.getName());
+        };
+    }
+}
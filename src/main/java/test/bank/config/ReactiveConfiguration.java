@@ -0,0 +1,80 @@
+package test.bank.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.Map;
+
+// The non-blocking stack of the reactive profile: Netty, an R2DBC pool next to the JDBC one and a transactional
+// operator for it. JPA and Flyway keep running on JDBC for everything the reactive endpoints do not cover.
+// The pool must not be a ConnectionFactory bean: DataSourceAutoConfiguration backs off as soon as one exists and
+// takes JPA and Flyway with it, so it is only reachable through ReactivePool.
+// The reactive endpoints lock and update bank_account rows directly, so only the locking balance mode may run
+// next to them; any other mode keeps balances elsewhere and the two would overwrite each other.
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfiguration {
+    public ReactiveConfiguration(@Value("${app.bank.balance-mode:locking}") String balanceMode) {
+        if (!"locking".equals(balanceMode)) {
+            throw new IllegalStateException("the reactive profile only runs with app.bank.balance-mode=locking, not " + balanceMode);
+        }
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ReactivePool reactivePool(R2dbcProperties properties,
+                                     @Value("${app.bank.reactive.lock-timeout-ms:3000}") long lockTimeoutMillis) {
+        var options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                // the lock timeout the JPA lookups pass as a query hint, applied to every connection of the pool
+                .option(PostgresqlConnectionFactoryProvider.OPTIONS, Map.of("lock_timeout", String.valueOf(lockTimeoutMillis)));
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        var pool = properties.getPool();
+        return new ReactivePool(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build()));
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ReactivePool reactivePool) {
+        return DatabaseClient.create(reactivePool.connectionPool());
+    }
+
+    // the transaction manager is deliberately not a bean: a second TransactionManager would switch off the JPA one
+    // and make every @Transactional ambiguous
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ReactivePool reactivePool) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(reactivePool.connectionPool()));
+    }
+
+    // Tomcat is on the classpath for the servlet stack and would otherwise serve the reactive handlers
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    public record ReactivePool(ConnectionPool connectionPool) {
+        public void dispose() {
+            connectionPool.dispose();
+        }
+    }
+}
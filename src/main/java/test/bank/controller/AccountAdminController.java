@@ -0,0 +1,48 @@
+package test.bank.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import test.bank.dto.response.bankAccount.AccountContentionResponseDto;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.bankAccount.ContentionResponseDto;
+import test.bank.dto.response.latency.LatencyResponseDto;
+import test.bank.service.ContentionProfiler;
+import test.bank.service.EndpointLatencyRecorder;
+import test.bank.service.interfaces.StripedBalanceService;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AccountAdminController {
+    private final StripedBalanceService stripedBalanceService;
+    private final ContentionProfiler contentionProfiler;
+    private final EndpointLatencyRecorder endpointLatencyRecorder;
+
+    @PostMapping("/accounts/{accountNumber}/striping")
+    public BankAccountResponseDto enableStriping(@PathVariable(name = "accountNumber") String accountNumber,
+                                                 @RequestParam(name = "stripes", defaultValue = "8") int stripes) {
+        return BankAccountResponseDto.of(stripedBalanceService.withEffectiveBalance(stripedBalanceService.enableStriping(accountNumber, stripes)));
+    }
+
+    // accounts with the most lock-wait time since start or the last reset, heaviest first
+    @GetMapping("/contention")
+    public ContentionResponseDto contention(@RequestParam(name = "limit", defaultValue = "20") int limit) {
+        var accounts = contentionProfiler.top(Math.max(limit, 0)).stream()
+                .map(AccountContentionResponseDto::of)
+                .toList();
+        return new ContentionResponseDto(accounts, contentionProfiler.dropped());
+    }
+
+    @DeleteMapping("/contention")
+    public void resetContention() {
+        contentionProfiler.reset();
+    }
+
+    // latency per endpoint and outcome since the previous call, every call starts a new interval
+    @GetMapping("/latency")
+    public LatencyResponseDto latency() {
+        return endpointLatencyRecorder.snapshot();
+    }
+}
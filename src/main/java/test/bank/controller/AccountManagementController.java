@@ -1,19 +1,28 @@
 package test.bank.controller;
 
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import test.bank.dto.request.bankAccount.BankAccountCreateRequestDto;
+import test.bank.dto.response.bankAccount.BankAccountPageResponseDto;
 import test.bank.dto.response.bankAccount.BankAccountResponseDto;
 import test.bank.service.interfaces.AccountManagementService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/management")
 @RequiredArgsConstructor
 public class AccountManagementController {
     private final AccountManagementService accountManagementService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public BankAccountResponseDto createBankAccount(@RequestBody @Valid BankAccountCreateRequestDto bankAccountCreateRequestDto) {
@@ -27,6 +36,29 @@ public class AccountManagementController {
         ).toList();
     }
 
+    @GetMapping("/page")
+    public BankAccountPageResponseDto findPage(@RequestParam(name = "after", required = false) String after,
+                                               @RequestParam(name = "size", defaultValue = "100") int size) {
+        return BankAccountPageResponseDto.of(accountManagementService.findPage(after, size));
+    }
+
+    @GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+    public StreamingResponseBody streamAll() {
+        return outputStream -> {
+            try (var generator = objectMapper.createGenerator(outputStream)) {
+                // written before every record but the first, an empty table streams an empty body
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                accountManagementService.forEachAccount(account -> {
+                    try {
+                        BankAccountResponseDto.Serializer.write(generator, account);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
     @GetMapping("/{accountNumber}")
     public BankAccountResponseDto getByAccountNumber(@PathVariable(name = "accountNumber") String accountNumber) {
         return BankAccountResponseDto.of(accountManagementService.getByAccountNumber(accountNumber));
@@ -2,22 +2,33 @@ package test.bank.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import test.bank.domain.banking.transaction.TransferOrder;
 import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.request.transaction.TransferBatchRequestDto;
 import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.transaction.StatementPageResponseDto;
 import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferBatchItemResponseDto;
 import test.bank.dto.response.transaction.TransferTransactionResponseDto;
 import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.service.DepositCoalescer;
+import test.bank.service.interfaces.AccountStatementService;
 import test.bank.service.interfaces.AccountTransactionsService;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/transaction")
 @RequiredArgsConstructor
 public class AccountTransactionController {
     private final AccountTransactionsService accountTransactionsService;
+    private final AccountStatementService accountStatementService;
+    private final ObjectProvider<DepositCoalescer> depositCoalescer;
 
     @PostMapping("/transfer")
     public TransferTransactionResponseDto transfer(@RequestBody @Valid TransferTransactionRequestDto transactionRequestDto) {
@@ -27,6 +38,17 @@ public class AccountTransactionController {
         return TransferTransactionResponseDto.of(accountTransactionsService.transfer(transactionRequestDto.getSenderAccountNumber(), transactionRequestDto.getReceiverAccountNumber(), transactionRequestDto.getAmount()));
     }
 
+    @PostMapping("/transfer/batch")
+    public List<TransferBatchItemResponseDto> transferBatch(@RequestBody @Valid TransferBatchRequestDto transferBatchRequestDto) {
+        var orders = transferBatchRequestDto.getTransfers().stream()
+                .map(dto -> new TransferOrder(dto.getSenderAccountNumber(), dto.getReceiverAccountNumber(), dto.getAmount()))
+                .toList();
+        var results = accountTransactionsService.transferBatch(orders);
+        return IntStream.range(0, results.size())
+                .mapToObj(i -> TransferBatchItemResponseDto.of(i, results.get(i)))
+                .toList();
+    }
+
     @PostMapping("/withdraw")
     public TransactionResponseDto withdraw(@RequestBody @Valid TransactionRequestDto transactionRequestDto) {
         return TransactionResponseDto.of(accountTransactionsService.withdraw(transactionRequestDto.getAccountNumber(), transactionRequestDto.getAmount()));
@@ -34,6 +56,19 @@ public class AccountTransactionController {
 
     @PostMapping("/deposit")
     public TransactionResponseDto deposit(@RequestBody @Valid TransactionRequestDto transactionRequestDto) {
+        var coalescer = depositCoalescer.getIfAvailable();
+        if (coalescer != null) {
+            return TransactionResponseDto.of(coalescer.deposit(transactionRequestDto.getAccountNumber(), transactionRequestDto.getAmount()));
+        }
         return TransactionResponseDto.of(accountTransactionsService.deposit(transactionRequestDto.getAccountNumber(), transactionRequestDto.getAmount()));
     }
+
+    @GetMapping("/statement/{accountNumber}")
+    public StatementPageResponseDto statement(@PathVariable(name = "accountNumber") String accountNumber,
+                                              @RequestParam(name = "from", defaultValue = "0") long from,
+                                              @RequestParam(name = "to", defaultValue = "9223372036854775807") long to,
+                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                              @RequestParam(name = "size", defaultValue = "50") int size) {
+        return StatementPageResponseDto.of(accountStatementService.getStatement(accountNumber, from, to, cursor, size));
+    }
 }
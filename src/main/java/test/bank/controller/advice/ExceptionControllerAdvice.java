@@ -3,6 +3,8 @@ package test.bank.controller.advice;
 import jakarta.persistence.PersistenceException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -16,11 +18,13 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import test.bank.exception.ApiError;
 import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationConcurrencyException;
 import test.bank.exception.BankApplicationException;
 import test.bank.exception.BankApplicationNotFoundException;
 
 @Slf4j
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
@@ -70,6 +74,32 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
                 .body(ApiError.from(HttpStatus.INTERNAL_SERVER_ERROR, error, bodyOfResponse, req.getRequestURI()));
     }
 
+    @ExceptionHandler(value = {BankApplicationConcurrencyException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    protected ResponseEntity<ApiError> handleBankApplicationConcurrencyException(HttpServletRequest req, BankApplicationConcurrencyException ex) {
+        log.warn("[handleBankApplicationConcurrencyException] exception: {}", ex.getMessage());
+
+        var bodyOfResponse = "account is busy, retry later";
+        var error = "lock timeout";
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.from(HttpStatus.SERVICE_UNAVAILABLE, error, bodyOfResponse, req.getRequestURI()));
+    }
+
+    // lock timeouts, deadlocks and serialization failures, the request can be repeated as is
+    @ExceptionHandler(value = {ConcurrencyFailureException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    protected ResponseEntity<ApiError> handleConcurrencyFailureException(HttpServletRequest req, ConcurrencyFailureException ex) {
+        log.warn("[handleConcurrencyFailureException] exception: {}", ex.getMessage());
+
+        var bodyOfResponse = "account is busy, retry later";
+        var error = "lock timeout";
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiError.from(HttpStatus.SERVICE_UNAVAILABLE, error, bodyOfResponse, req.getRequestURI()));
+    }
+
     @ExceptionHandler(value = {PersistenceException.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     protected ResponseEntity<ApiError> handlePersistenceException(HttpServletRequest req, PersistenceException ex) {
@@ -0,0 +1,81 @@
+package test.bank.controller.advice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+import test.bank.exception.ApiError;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNotFoundException;
+
+// ExceptionControllerAdvice for the WebFlux handlers of the reactive profile, same statuses and ApiError bodies
+@Slf4j
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionControllerAdvice {
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiError> handleWebExchangeBindException(ServerHttpRequest req, WebExchangeBindException ex) {
+        var errors = new StringBuilder();
+        ex.getBindingResult().getAllErrors().forEach(error -> errors.append(error.getDefaultMessage()).append("; "));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiError.from(HttpStatus.BAD_REQUEST, "validation error", errors.toString(), req.getPath().value()));
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiError> handleServerWebInputException(ServerHttpRequest req, ServerWebInputException ex) {
+        log.warn("[handleServerWebInputException] exception: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiError.from(HttpStatus.BAD_REQUEST, "bad request", ex.getReason(), req.getPath().value()));
+    }
+
+    @ExceptionHandler(BankApplicationNotFoundException.class)
+    public ResponseEntity<ApiError> handleBankApplicationNotFoundException(ServerHttpRequest req, BankApplicationNotFoundException ex) {
+        log.warn("[handleBankApplicationNotFoundException] exception: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiError.from(HttpStatus.NOT_FOUND, "entity not found", "entity not found", req.getPath().value()));
+    }
+
+    @ExceptionHandler(BankApplicationBadRequestException.class)
+    public ResponseEntity<ApiError> handleBankApplicationBadRequestException(ServerHttpRequest req, BankApplicationBadRequestException ex) {
+        log.warn("[handleBankApplicationBadRequestException] exception: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiError.from(HttpStatus.BAD_REQUEST, "bad request", ex.getMessage(), req.getPath().value()));
+    }
+
+    @ExceptionHandler(BankApplicationConcurrencyException.class)
+    public ResponseEntity<ApiError> handleBankApplicationConcurrencyException(ServerHttpRequest req, BankApplicationConcurrencyException ex) {
+        log.warn("[handleBankApplicationConcurrencyException] exception: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.from(HttpStatus.SERVICE_UNAVAILABLE, "lock timeout", "account is busy, retry later", req.getPath().value()));
+    }
+
+    @ExceptionHandler(BankApplicationException.class)
+    public ResponseEntity<ApiError> handleBankApplicationException(ServerHttpRequest req, BankApplicationException ex) {
+        log.warn("[handleBankApplicationException] exception: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiError.from(HttpStatus.INTERNAL_SERVER_ERROR, "internal server error", "internal server error", req.getPath().value()));
+    }
+
+    @ExceptionHandler(Throwable.class)
+    public ResponseEntity<ApiError> handleThrowable(ServerHttpRequest req, Throwable t) {
+        log.error("handleThrowable: unexpected common exception [{}]: {}", t.getClass(), t.getMessage());
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiError.from(HttpStatus.INTERNAL_SERVER_ERROR, "unknown error", "request support", req.getPath().value()));
+    }
+}
@@ -0,0 +1,45 @@
+package test.bank.controller.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+import test.bank.service.EndpointLatencyRecorder;
+
+import java.io.IOException;
+
+// Times the whole dispatch, including the exception advice and the response body. Streaming responses are
+// timed until the handler returns, the async dispatch that writes the stream is not filtered.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class EndpointLatencyFilter extends OncePerRequestFilter {
+    private final EndpointLatencyRecorder endpointLatencyRecorder;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+                long elapsed = System.nanoTime() - start;
+                if (completed) {
+                    // set by the dispatcher when the advice answered with a response entity
+                    endpointLatencyRecorder.record(handler.getMethod(), (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE), elapsed);
+                } else {
+                    endpointLatencyRecorder.recordUnhandled(handler.getMethod(), elapsed);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package test.bank.controller.reactive;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.service.interfaces.ReactiveAccountTransactionsService;
+
+// The paths and DTOs of AccountTransactionController and AccountManagementController for the operations the
+// reactive stack covers
+@RestController
+@RequestMapping("/api")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountTransactionController {
+    private final ReactiveAccountTransactionsService accountTransactionsService;
+
+    @PostMapping("/transaction/transfer")
+    public Mono<TransferTransactionResponseDto> transfer(@RequestBody @Valid TransferTransactionRequestDto transactionRequestDto) {
+        if (transactionRequestDto.getSenderAccountNumber().equals(transactionRequestDto.getReceiverAccountNumber())) {
+            return Mono.error(new BankApplicationBadRequestException("receiver and sender account number can not be the same"));
+        }
+        return accountTransactionsService.transfer(transactionRequestDto.getSenderAccountNumber(), transactionRequestDto.getReceiverAccountNumber(), transactionRequestDto.getAmount())
+                .map(TransferTransactionResponseDto::of);
+    }
+
+    @PostMapping("/transaction/withdraw")
+    public Mono<TransactionResponseDto> withdraw(@RequestBody @Valid TransactionRequestDto transactionRequestDto) {
+        return accountTransactionsService.withdraw(transactionRequestDto.getAccountNumber(), transactionRequestDto.getAmount())
+                .map(TransactionResponseDto::of);
+    }
+
+    @PostMapping("/transaction/deposit")
+    public Mono<TransactionResponseDto> deposit(@RequestBody @Valid TransactionRequestDto transactionRequestDto) {
+        return accountTransactionsService.deposit(transactionRequestDto.getAccountNumber(), transactionRequestDto.getAmount())
+                .map(TransactionResponseDto::of);
+    }
+
+    @GetMapping("/management/{accountNumber}")
+    public Mono<BankAccountResponseDto> getByAccountNumber(@PathVariable(name = "accountNumber") String accountNumber) {
+        return accountTransactionsService.getByAccountNumber(accountNumber)
+                .map(BankAccountResponseDto::of);
+    }
+}
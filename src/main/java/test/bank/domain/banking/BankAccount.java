@@ -5,7 +5,6 @@ import lombok.*;
 import test.bank.domain.banking.transaction.BankTransaction;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -22,21 +21,60 @@ public class BankAccount {
     @GeneratedValue
     private UUID id;
 
+    // cents, see Money. Checks and updates on the transaction path stay primitive
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false, precision = 20, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private long balance;
+    // primitive on purpose: Spring Data keeps deciding isNew by the id instead of a null version
+    @Version
+    private long version;
     @Column(name = "account_number", unique = true)
     private String accountNumber;
+    @Column(nullable = false)
+    private int stripes;
     @OneToMany(mappedBy = "bankAccount")
     private List<BankTransaction> transactions = new ArrayList<>();
 
     public BankAccount(BigDecimal balance, String accountNumber) {
-        this.balance = balance;
+        this.balance = Money.toMinorUnits(balance);
         this.accountNumber = accountNumber;
     }
 
     public BankAccount(UUID id, BigDecimal balance, String accountNumber) {
         this.id = id;
-        this.balance = balance;
+        this.balance = Money.toMinorUnits(balance);
         this.accountNumber = accountNumber;
     }
+
+    public boolean isStriped() {
+        return stripes > 0;
+    }
+
+    public BigDecimal getBalance() {
+        return Money.toBigDecimal(balance);
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = Money.toMinorUnits(balance);
+    }
+
+    public long getBalanceMinorUnits() {
+        return balance;
+    }
+
+    public void setBalanceMinorUnits(long balance) {
+        this.balance = balance;
+    }
+
+    public boolean covers(long amountMinorUnits) {
+        return balance >= amountMinorUnits;
+    }
+
+    public void debit(long amountMinorUnits) {
+        balance = Math.subtractExact(balance, amountMinorUnits);
+    }
+
+    public void credit(long amountMinorUnits) {
+        balance = Math.addExact(balance, amountMinorUnits);
+    }
 }
@@ -0,0 +1,27 @@
+package test.bank.domain.banking;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+// one sub-balance of a striped account, the effective balance is bank_account.balance plus all buckets
+@Entity(name = "bank_account_bucket")
+@IdClass(BankAccountBucketId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"bankAccountId", "bucket"})
+@ToString
+public class BankAccountBucket {
+    @Id
+    @Column(name = "bank_account_id")
+    private UUID bankAccountId;
+    @Id
+    private int bucket;
+    @Column(nullable = false, precision = 20, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+}
@@ -0,0 +1,16 @@
+package test.bank.domain.banking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankAccountBucketId implements Serializable {
+    private UUID bankAccountId;
+    private int bucket;
+}
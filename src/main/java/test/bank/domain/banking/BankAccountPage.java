@@ -0,0 +1,14 @@
+package test.bank.domain.banking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BankAccountPage {
+    private final List<BankAccount> accounts;
+    // account number to continue after, null on the last page
+    private final String nextCursor;
+}
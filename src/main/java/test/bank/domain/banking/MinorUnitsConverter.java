@@ -0,0 +1,20 @@
+package test.bank.domain.banking;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// keeps DECIMAL(20,2) in the database while the entity holds cents in a long
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits == null ? null : Money.toBigDecimal(minorUnits);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal value) {
+        return value == null ? 0L : Money.toMinorUnits(value);
+    }
+}
@@ -0,0 +1,172 @@
+package test.bank.domain.banking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import test.bank.exception.BankApplicationBadRequestException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// An amount as a count of minor units (cents). Balance checks and updates work on the long directly,
+// BigDecimal only appears where the outside world hands one in or the database column expects one.
+// Serialized as a string with exactly two decimals, e.g. "1234.50", like the previous @JsonFormat pattern.
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofMinorUnits(toMinorUnits(amount));
+    }
+
+    // rejects fractions of a cent instead of rounding them away; amounts come from requests, so that is a client error
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).scaleByPowerOfTen(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new BankApplicationBadRequestException("amount should have at most " + SCALE + " decimal places and fit the balance range: " + amount);
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits);
+    }
+
+    // writes e.g. "-12.05" into the end of the buffer and returns where it starts, 21 chars fit every long
+    static int format(long minorUnits, char[] buffer) {
+        int position = buffer.length;
+        // negated into the negative range so Long.MIN_VALUE does not overflow
+        long remaining = minorUnits < 0 ? minorUnits : -minorUnits;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (minorUnits < 0) {
+            buffer[--position] = '-';
+        }
+        return position;
+    }
+
+    // "12", "12.5" and "-0.05" are accepted, anything beyond cents is not
+    static long parse(char[] text, int offset, int length) {
+        int end = offset + length;
+        int position = offset;
+        boolean negative = position < end && text[position] == '-';
+        if (negative || position < end && text[position] == '+') {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; position < end; position++) {
+            char c = text[position];
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || decimals >= SCALE) {
+                throw new NumberFormatException("not a money amount: " + new String(text, offset, length));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), negative ? '0' - c : c - '0');
+            digits++;
+            if (decimals >= 0) {
+                decimals++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("not a money amount: " + new String(text, offset, length));
+        }
+        for (int i = Math.max(decimals, 0); i < SCALE; i++) {
+            value = Math.multiplyExact(value, 10);
+        }
+        return value;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Money other && minorUnits == other.minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        var buffer = new char[21];
+        int start = format(minorUnits, buffer);
+        return new String(buffer, start, buffer.length - start);
+    }
+
+    // for serializers of types holding an amount, skips the lookup of the Money serializer
+    public static void write(JsonGenerator gen, Money value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        var buffer = new char[21];
+        int start = format(value.minorUnits, buffer);
+        gen.writeString(buffer, start, buffer.length - start);
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            write(gen, value);
+        }
+    }
+
+    // accepts the string form written above as well as plain JSON numbers
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            var token = parser.currentToken();
+            if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            try {
+                return ofMinorUnits(parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package test.bank.domain.banking.transaction;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 import test.bank.domain.banking.BankAccount;
+import test.bank.util.UuidUtil;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -11,10 +13,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = {"id"})
-@Inheritance(strategy = InheritanceType.JOINED)
-public class BankTransaction {
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "type", discriminatorType = DiscriminatorType.CHAR)
+public class BankTransaction implements Persistable<UUID> {
     public BankTransaction(BigDecimal amount, Long timestamp, BankAccount bankAccount, MoneyFlow flow) {
         this.amount = amount;
         this.timestamp = timestamp;
@@ -22,13 +24,37 @@ public class BankTransaction {
         this.flow = flow;
     }
 
+    public BankTransaction(UUID id, BigDecimal amount, Long timestamp, BankAccount bankAccount, MoneyFlow flow) {
+        this.id = id;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.bankAccount = bankAccount;
+        this.flow = flow;
+    }
+
+    // ids are assigned on the client so ledger rows can be persisted without a merge and inserted in JDBC batches
     @Id
-    @GeneratedValue
-    private UUID id;
+    private UUID id = UuidUtil.timeOrderedUuid();
     private BigDecimal amount;
     private Long timestamp;
     @ManyToOne
     private BankAccount bankAccount;
     @Enumerated(EnumType.STRING)
     private MoneyFlow flow;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -1,7 +1,7 @@
 package test.bank.domain.banking.transaction;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
-import jakarta.persistence.PrimaryKeyJoinColumn;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,7 +11,7 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity(name = "deposit_transaction")
-@PrimaryKeyJoinColumn(name = "id")
+@DiscriminatorValue("D")
 @Getter
 @Setter
 @NoArgsConstructor
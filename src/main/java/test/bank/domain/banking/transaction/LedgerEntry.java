@@ -0,0 +1,32 @@
+package test.bank.domain.banking.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// a ledger row as the sharded engine hands it to the asynchronous writer, ids are assigned up front
+// so a row written twice is recognised and skipped
+@Getter
+@ToString
+@AllArgsConstructor
+public class LedgerEntry {
+    public static final char DEPOSIT = 'D';
+    public static final char WITHDRAW = 'W';
+    public static final char TRANSFER = 'T';
+
+    private final UUID id;
+    private final char type;
+    private final UUID bankAccountId;
+    // only set for transfers
+    private final UUID visavisId;
+    private final BigDecimal amount;
+    private final MoneyFlow flow;
+    private final long timestamp;
+
+    public BigDecimal signedAmount() {
+        return flow == MoneyFlow.IN ? amount : amount.negate();
+    }
+}
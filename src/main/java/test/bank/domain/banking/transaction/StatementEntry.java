@@ -0,0 +1,18 @@
+package test.bank.domain.banking.transaction;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface StatementEntry {
+    UUID getId();
+
+    Long getTimestamp();
+
+    BigDecimal getAmount();
+
+    MoneyFlow getFlow();
+
+    String getType();
+
+    String getVisavisAccountNumber();
+}
@@ -0,0 +1,14 @@
+package test.bank.domain.banking.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StatementPage {
+    private final List<StatementEntry> entries;
+    // null when there are no more entries in the requested range
+    private final String nextCursor;
+}
@@ -0,0 +1,25 @@
+package test.bank.domain.banking.transaction;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import test.bank.exception.BankApplicationException;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransferBatchResult {
+    private final TransferTransaction transaction;
+    private final BankApplicationException error;
+
+    public static TransferBatchResult success(TransferTransaction transaction) {
+        return new TransferBatchResult(transaction, null);
+    }
+
+    public static TransferBatchResult failure(BankApplicationException error) {
+        return new TransferBatchResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
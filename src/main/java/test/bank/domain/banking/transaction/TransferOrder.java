@@ -0,0 +1,14 @@
+package test.bank.domain.banking.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class TransferOrder {
+    private final String senderAccountNumber;
+    private final String receiverAccountNumber;
+    private final BigDecimal amount;
+}
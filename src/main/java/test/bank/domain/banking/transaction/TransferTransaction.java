@@ -1,8 +1,8 @@
 package test.bank.domain.banking.transaction;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
-import jakarta.persistence.OneToOne;
-import jakarta.persistence.PrimaryKeyJoinColumn;
+import jakarta.persistence.ManyToOne;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,7 +12,7 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity(name = "transfer_transaction")
-@PrimaryKeyJoinColumn(name = "id")
+@DiscriminatorValue("T")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +22,6 @@ public class TransferTransaction extends BankTransaction {
         this.visavis = visavis;
     }
 
-    @OneToOne
+    @ManyToOne
     private BankAccount visavis;
 }
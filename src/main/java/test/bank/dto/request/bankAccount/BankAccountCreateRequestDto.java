@@ -2,6 +2,7 @@ package test.bank.dto.request.bankAccount;
 
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,5 +14,6 @@ import java.math.BigDecimal;
 @Data
 public class BankAccountCreateRequestDto {
     @DecimalMin(value = "0")
+    @Digits(integer = 18, fraction = 2)
     private BigDecimal initialBalance;
 }
@@ -1,6 +1,7 @@
 package test.bank.dto.request.transaction;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,5 +16,6 @@ public class TransactionRequestDto {
     @Pattern(regexp = "\\d{16}", message = "must be exactly 16 digits")
     private String accountNumber;
     @DecimalMin(value = "0", inclusive = false)
+    @Digits(integer = 18, fraction = 2)
     private BigDecimal amount;
 }
@@ -0,0 +1,19 @@
+package test.bank.dto.request.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferBatchRequestDto {
+    @NotEmpty(message = "transfers must not be empty")
+    @Size(max = 1000, message = "at most 1000 transfers per batch")
+    private List<@Valid TransferTransactionRequestDto> transfers;
+}
@@ -0,0 +1,24 @@
+package test.bank.dto.response.bankAccount;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import test.bank.util.SpaceSavingSketch;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountContentionResponseDto {
+    private String accountNumber;
+    private long lockWaits;
+    private long lockWaitMicros;
+    // upper bound of the overestimate in lockWaitMicros, inherited from accounts the sketch evicted
+    private long maxOverestimateMicros;
+
+    public static AccountContentionResponseDto of(SpaceSavingSketch.Counter counter) {
+        return new AccountContentionResponseDto(counter.key(), counter.hits(),
+                TimeUnit.NANOSECONDS.toMicros(counter.weight()), TimeUnit.NANOSECONDS.toMicros(counter.error()));
+    }
+}
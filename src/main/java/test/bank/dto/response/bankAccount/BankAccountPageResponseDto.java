@@ -0,0 +1,20 @@
+package test.bank.dto.response.bankAccount;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import test.bank.domain.banking.BankAccountPage;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BankAccountPageResponseDto {
+    private List<BankAccountResponseDto> accounts;
+    private String nextCursor;
+
+    public static BankAccountPageResponseDto of(BankAccountPage page) {
+        return new BankAccountPageResponseDto(page.getAccounts().stream().map(BankAccountResponseDto::of).toList(), page.getNextCursor());
+    }
+}
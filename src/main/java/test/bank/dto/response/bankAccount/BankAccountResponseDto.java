@@ -1,29 +1,62 @@
 package test.bank.dto.response.bankAccount;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.UUID;
 
 @Data
 @NoArgsConstructor
+@JsonSerialize(using = BankAccountResponseDto.Serializer.class)
 public class BankAccountResponseDto {
     private UUID id;
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
-    private BigDecimal balance;
+    private Money balance;
     private String accountNumber;
 
     public BankAccountResponseDto(UUID id, BigDecimal balance, String accountNumber) {
         this.id = id;
-        this.balance = balance.setScale(2, RoundingMode.HALF_UP);
+        this.balance = Money.of(balance);
         this.accountNumber = accountNumber;
     }
 
     public static BankAccountResponseDto of(BankAccount bankAccount) {
         return new BankAccountResponseDto(bankAccount.getId(), bankAccount.getBalance(), bankAccount.getAccountNumber());
     }
+
+    public static class Serializer extends JsonSerializer<BankAccountResponseDto> {
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString BALANCE = new SerializedString("balance");
+        private static final SerializableString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+
+        @Override
+        public void serialize(BankAccountResponseDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            write(gen, value.id, value.balance, value.accountNumber);
+        }
+
+        // lets streaming endpoints write an account without building the dto first
+        public static void write(JsonGenerator gen, BankAccount account) throws IOException {
+            write(gen, account.getId(), Money.ofMinorUnits(account.getBalanceMinorUnits()), account.getAccountNumber());
+        }
+
+        private static void write(JsonGenerator gen, UUID id, Money balance, String accountNumber) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(ID);
+            gen.writeString(id == null ? null : id.toString());
+            gen.writeFieldName(BALANCE);
+            Money.write(gen, balance);
+            gen.writeFieldName(ACCOUNT_NUMBER);
+            gen.writeString(accountNumber);
+            gen.writeEndObject();
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package test.bank.dto.response.bankAccount;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentionResponseDto {
+    private List<AccountContentionResponseDto> accounts;
+    // lock waits not recorded because every probed stripe was busy
+    private long droppedSamples;
+}
@@ -0,0 +1,27 @@
+package test.bank.dto.response.latency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EndpointLatencyResponseDto {
+    private String endpoint;
+    private String outcome;
+    private long count;
+    private double meanMicros;
+    private long p50Micros;
+    private long p90Micros;
+    private long p99Micros;
+    private long p999Micros;
+    private long maxMicros;
+
+    public static EndpointLatencyResponseDto of(String endpoint, String outcome, Histogram histogram) {
+        return new EndpointLatencyResponseDto(endpoint, outcome, histogram.getTotalCount(), histogram.getMean(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+    }
+}
@@ -0,0 +1,17 @@
+package test.bank.dto.response.latency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyResponseDto {
+    // the interval covered, from the previous snapshot (or the start) to this one
+    private long fromMillis;
+    private long toMillis;
+    private List<EndpointLatencyResponseDto> endpoints;
+}
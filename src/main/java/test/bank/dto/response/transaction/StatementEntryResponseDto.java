@@ -0,0 +1,37 @@
+package test.bank.dto.response.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.StatementEntry;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatementEntryResponseDto {
+    private UUID id;
+    private Long timestamp;
+    private Money amount;
+    private MoneyFlow flow;
+    private String type;
+    private String visavisAccountNumber;
+
+    public static StatementEntryResponseDto of(StatementEntry entry) {
+        return new StatementEntryResponseDto(entry.getId(), entry.getTimestamp(), Money.of(entry.getAmount()), entry.getFlow(), typeName(entry.getType()), entry.getVisavisAccountNumber());
+    }
+
+    private static String typeName(String discriminator) {
+        return switch (discriminator) {
+            case "D" -> "DEPOSIT";
+            case "W" -> "WITHDRAW";
+            case "T" -> "TRANSFER";
+            default -> discriminator;
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package test.bank.dto.response.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import test.bank.domain.banking.transaction.StatementPage;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementPageResponseDto {
+    private List<StatementEntryResponseDto> entries;
+    private String nextCursor;
+
+    public static StatementPageResponseDto of(StatementPage page) {
+        return new StatementPageResponseDto(page.getEntries().stream().map(StatementEntryResponseDto::of).toList(), page.getNextCursor());
+    }
+}
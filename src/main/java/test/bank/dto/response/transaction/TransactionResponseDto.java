@@ -1,25 +1,66 @@
 package test.bank.dto.response.transaction;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import test.bank.domain.banking.Money;
 import test.bank.domain.banking.transaction.BankTransaction;
 import test.bank.domain.banking.transaction.MoneyFlow;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonSerialize(using = TransactionResponseDto.Serializer.class)
 public class TransactionResponseDto {
     private Long timestamp;
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "0.00")
-    private BigDecimal amount;
+    private Money amount;
     private String bankAccountNumber;
     private MoneyFlow flow;
 
+    public TransactionResponseDto(Long timestamp, BigDecimal amount, String bankAccountNumber, MoneyFlow flow) {
+        this(timestamp, Money.of(amount), bankAccountNumber, flow);
+    }
+
     public static TransactionResponseDto of(BankTransaction transaction) {
         return new TransactionResponseDto(transaction.getTimestamp(), transaction.getAmount(), transaction.getBankAccount().getAccountNumber(), transaction.getFlow());
     }
+
+    // writes the fields in declaration order like the bean serializer did, without its reflection and per property lookups
+    public static class Serializer extends JsonSerializer<TransactionResponseDto> {
+        private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+        private static final SerializableString AMOUNT = new SerializedString("amount");
+        private static final SerializableString BANK_ACCOUNT_NUMBER = new SerializedString("bankAccountNumber");
+        private static final SerializableString FLOW = new SerializedString("flow");
+
+        @Override
+        public void serialize(TransactionResponseDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(value);
+            writeFields(value, gen);
+            gen.writeEndObject();
+        }
+
+        static void writeFields(TransactionResponseDto value, JsonGenerator gen) throws IOException {
+            gen.writeFieldName(TIMESTAMP);
+            if (value.timestamp == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value.timestamp);
+            }
+            gen.writeFieldName(AMOUNT);
+            Money.write(gen, value.amount);
+            gen.writeFieldName(BANK_ACCOUNT_NUMBER);
+            gen.writeString(value.bankAccountNumber);
+            gen.writeFieldName(FLOW);
+            gen.writeString(value.flow == null ? null : value.flow.name());
+        }
+    }
 }
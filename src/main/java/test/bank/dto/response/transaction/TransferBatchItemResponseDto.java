@@ -0,0 +1,25 @@
+package test.bank.dto.response.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferBatchItemResponseDto {
+    private int index;
+    private boolean success;
+    private TransferTransactionResponseDto transaction;
+    private String error;
+
+    public static TransferBatchItemResponseDto of(int index, TransferBatchResult result) {
+        if (result.isSuccess()) {
+            return new TransferBatchItemResponseDto(index, true, TransferTransactionResponseDto.of(result.getTransaction()), null);
+        }
+        return new TransferBatchItemResponseDto(index, false, null, result.getError().getMessage());
+    }
+}
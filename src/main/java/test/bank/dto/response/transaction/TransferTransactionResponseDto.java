@@ -1,16 +1,25 @@
 package test.bank.dto.response.transaction;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import test.bank.domain.banking.transaction.MoneyFlow;
 import test.bank.domain.banking.transaction.TransferTransaction;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 
 @Getter
 @Setter
 @NoArgsConstructor
+// declared again, otherwise the serializer of the superclass is inherited and drops visavisAccountNumber
+@JsonSerialize(using = TransferTransactionResponseDto.Serializer.class)
 public class TransferTransactionResponseDto extends TransactionResponseDto {
     private String visavisAccountNumber;
 
@@ -28,4 +37,17 @@ public class TransferTransactionResponseDto extends TransactionResponseDto {
                 transaction.getVisavis().getAccountNumber()
         );
     }
+
+    public static class Serializer extends JsonSerializer<TransferTransactionResponseDto> {
+        private static final SerializableString VISAVIS_ACCOUNT_NUMBER = new SerializedString("visavisAccountNumber");
+
+        @Override
+        public void serialize(TransferTransactionResponseDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(value);
+            TransactionResponseDto.Serializer.writeFields(value, gen);
+            gen.writeFieldName(VISAVIS_ACCOUNT_NUMBER);
+            gen.writeString(value.visavisAccountNumber);
+            gen.writeEndObject();
+        }
+    }
 }
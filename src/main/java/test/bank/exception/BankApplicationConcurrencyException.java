@@ -0,0 +1,11 @@
+package test.bank.exception;
+
+public class BankApplicationConcurrencyException extends BankApplicationException {
+    public BankApplicationConcurrencyException(String message) {
+        super(message);
+    }
+
+    public BankApplicationConcurrencyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
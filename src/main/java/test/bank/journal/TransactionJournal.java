@@ -0,0 +1,363 @@
+package test.bank.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.domain.banking.transaction.MoneyFlow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+// Append-only journal of accepted operations in memory-mapped, preallocated segment files. A record is
+// [payload length][crc32c of payload][payload] and holds every ledger row of one operation, so the legs of a
+// transfer are replayed together or not at all. Positions are global byte offsets (segment base + offset).
+// A background thread forces written pages to disk every group commit window and wakes every caller whose
+// record is covered, so concurrent operations share one fsync.
+@Slf4j
+@Component
+@ConditionalOnExpression("'${app.bank.balance-mode:locking}' == 'sharded' and ${app.bank.journal.enabled:true}")
+public class TransactionJournal implements Closeable {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = 8;
+    private static final int ENTRY_SIZE = 16 + 1 + 16 + 1 + 16 + 1 + 8 + 4 + 1 + 32;
+    private static final MoneyFlow[] FLOWS = MoneyFlow.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitNanos;
+    // segments found on open, they are only read by replay
+    private final List<Path> recovered;
+    // bases of the segments this run has filled and closed, oldest first
+    private final ArrayDeque<Long> sealed = new ArrayDeque<>();
+    private final Thread flusher;
+
+    private Segment active;
+    private long written;
+    private long durable;
+    private volatile boolean running = true;
+
+    public TransactionJournal(@Value("${app.bank.journal.directory:data/journal}") Path directory,
+                              @Value("${app.bank.journal.segment-size:67108864}") int segmentSize,
+                              @Value("${app.bank.journal.group-commit-micros:500}") long groupCommitMicros) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitNanos = TimeUnit.MICROSECONDS.toNanos(groupCommitMicros);
+        Files.createDirectories(directory);
+
+        this.recovered = listSegments();
+        long nextBase = recovered.isEmpty() ? 0 : baseOf(recovered.get(recovered.size() - 1)) + segmentSize;
+        this.active = Segment.create(segmentPath(nextBase), nextBase, segmentSize);
+        this.written = nextBase;
+        this.durable = nextBase;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // returns the position the record ends at, the record is durable once awaitDurable(position) returns
+    public synchronized long append(List<LedgerEntry> entries) {
+        var payload = encode(entries);
+        int recordSize = HEADER_SIZE + payload.remaining();
+        if (recordSize > segmentSize - Integer.BYTES) {
+            throw new IllegalArgumentException("journal record of " + recordSize + " bytes does not fit a segment");
+        }
+        if (active.buffer.remaining() < recordSize + Integer.BYTES) {
+            roll();
+        }
+
+        var crc = new CRC32C();
+        crc.update(payload.duplicate());
+        var buffer = active.buffer;
+        int start = buffer.position();
+        // the length goes last, a reader never sees a length whose payload is not there yet
+        buffer.position(start + Integer.BYTES);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.putInt(start, recordSize - HEADER_SIZE);
+
+        written = active.base + buffer.position();
+        notifyAll();
+        return written;
+    }
+
+    public void awaitDurable(long position) throws InterruptedException {
+        synchronized (this) {
+            while (durable < position) {
+                if (!running && !flusher.isAlive()) {
+                    throw new IllegalStateException("journal is closed");
+                }
+                // timed, so a caller notices a flusher that stopped
+                wait(100);
+            }
+        }
+    }
+
+    // hands every complete record left by the previous run to the consumer, in order. A torn or corrupt
+    // record ends the log: it was never acknowledged
+    public void replay(Consumer<List<LedgerEntry>> consumer) throws IOException {
+        int records = 0;
+        outer:
+        for (var path : recovered) {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (buffer.remaining() >= HEADER_SIZE) {
+                    int length = buffer.getInt();
+                    if (length == 0) {
+                        break;
+                    }
+                    int expectedCrc = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining()) {
+                        log.warn("[replay] torn record in {} at {}, replay stops here", path, buffer.position() - HEADER_SIZE);
+                        break outer;
+                    }
+                    var payload = buffer.slice(buffer.position(), length);
+                    var crc = new CRC32C();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != expectedCrc) {
+                        log.warn("[replay] checksum mismatch in {} at {}, replay stops here", path, buffer.position() - HEADER_SIZE);
+                        break outer;
+                    }
+                    consumer.accept(decode(payload));
+                    buffer.position(buffer.position() + length);
+                    records++;
+                }
+            }
+        }
+        log.info("[replay] replayed {} journal records from {} segments", records, recovered.size());
+    }
+
+    // called once the replayed records are safe elsewhere
+    public synchronized void discardRecovered() throws IOException {
+        for (var path : recovered) {
+            Files.deleteIfExists(path);
+        }
+        recovered.clear();
+    }
+
+    // drops sealed segments whose records all end at or before the position
+    public synchronized void checkpoint(long position) throws IOException {
+        while (!sealed.isEmpty() && sealed.peekFirst() + segmentSize <= position) {
+            Files.deleteIfExists(segmentPath(sealed.pollFirst()));
+        }
+    }
+
+    private void roll() {
+        // the remaining bytes stay zero, which reads as the end of the segment
+        active.buffer.force();
+        active.close();
+        sealed.addLast(active.base);
+        long nextBase = active.base + segmentSize;
+        try {
+            active = Segment.create(segmentPath(nextBase), nextBase, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // everything before the new segment was forced above
+        durable = nextBase;
+        written = nextBase;
+        notifyAll();
+    }
+
+    private void flushLoop() {
+        long forcedOffset = 0;
+        Segment forcedSegment = null;
+        while (running) {
+            Segment segment;
+            long target;
+            synchronized (this) {
+                try {
+                    while (running && written == durable) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                segment = active;
+                target = written;
+            }
+            if (segment != forcedSegment) {
+                forcedSegment = segment;
+                forcedOffset = 0;
+            }
+
+            int end = (int) (target - segment.base);
+            if (end > forcedOffset) {
+                try {
+                    segment.buffer.force((int) forcedOffset, end - (int) forcedOffset);
+                } catch (UncheckedIOException e) {
+                    // nothing written after this point can be acknowledged any more
+                    log.error("[flushLoop] forcing the journal failed, the journal stops: {}", e.getMessage());
+                    running = false;
+                    return;
+                }
+                forcedOffset = end;
+            }
+            synchronized (this) {
+                if (durable < target) {
+                    durable = target;
+                }
+                notifyAll();
+            }
+            // gives concurrent appends the window to join the next fsync
+            if (groupCommitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(groupCommitNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            notifyAll();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            active.buffer.force();
+            active.close();
+            durable = written;
+            notifyAll();
+        }
+    }
+
+    private static ByteBuffer encode(List<LedgerEntry> entries) {
+        var buffer = ByteBuffer.allocate(Integer.BYTES + entries.size() * ENTRY_SIZE);
+        buffer.putInt(entries.size());
+        for (var entry : entries) {
+            var unscaled = entry.getAmount().unscaledValue().toByteArray();
+            if (buffer.remaining() < ENTRY_SIZE - 32 + unscaled.length) {
+                buffer = grow(buffer, unscaled.length);
+            }
+            putUuid(buffer, entry.getId());
+            buffer.put((byte) entry.getType());
+            putUuid(buffer, entry.getBankAccountId());
+            buffer.put((byte) (entry.getVisavisId() == null ? 0 : 1));
+            if (entry.getVisavisId() != null) {
+                putUuid(buffer, entry.getVisavisId());
+            }
+            buffer.put((byte) entry.getFlow().ordinal());
+            buffer.putLong(entry.getTimestamp());
+            buffer.putInt(entry.getAmount().scale());
+            buffer.put((byte) unscaled.length);
+            buffer.put(unscaled);
+        }
+        return buffer.flip();
+    }
+
+    private static List<LedgerEntry> decode(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        var entries = new ArrayList<LedgerEntry>(count);
+        for (int i = 0; i < count; i++) {
+            var id = getUuid(buffer);
+            char type = (char) buffer.get();
+            var bankAccountId = getUuid(buffer);
+            var visavisId = buffer.get() == 0 ? null : getUuid(buffer);
+            var flow = FLOWS[buffer.get()];
+            long timestamp = buffer.getLong();
+            int scale = buffer.getInt();
+            var unscaled = new byte[buffer.get()];
+            buffer.get(unscaled);
+            entries.add(new LedgerEntry(id, type, bankAccountId, visavisId, new BigDecimal(new BigInteger(unscaled), scale), flow, timestamp));
+        }
+        return entries;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int extra) {
+        var grown = ByteBuffer.allocate(buffer.capacity() + ENTRY_SIZE + extra);
+        return grown.put(buffer.flip());
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", base) + SEGMENT_SUFFIX);
+    }
+
+    private static long baseOf(Path path) {
+        var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final long base;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment create(Path path, long base, int size) throws IOException {
+            var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // sized up front and zero filled, a fresh file reads as an empty segment
+            channel.write(ByteBuffer.wrap(new byte[]{0}), size - 1);
+            channel.force(true);
+            // the new file name must survive a crash as well
+            try (var dir = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException e) {
+                log.debug("[create] directory fsync is not supported here: {}", e.getMessage());
+            }
+            return new Segment(base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("[close] closing journal segment failed: {}", e.getMessage());
+            }
+        }
+    }
+}
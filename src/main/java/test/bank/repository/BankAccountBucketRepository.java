@@ -0,0 +1,37 @@
+package test.bank.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import test.bank.domain.banking.BankAccountBucket;
+import test.bank.domain.banking.BankAccountBucketId;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BankAccountBucketRepository extends JpaRepository<BankAccountBucket, BankAccountBucketId> {
+    List<BankAccountBucket> findAllByBankAccountId(UUID bankAccountId);
+
+    @Modifying
+    @Query(value = "UPDATE bank_account_bucket SET balance = balance + :amount WHERE bank_account_id = :bankAccountId AND bucket = :bucket", nativeQuery = true)
+    int credit(@Param("bankAccountId") UUID bankAccountId, @Param("bucket") int bucket, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE bank_account_bucket SET balance = balance - :amount WHERE bank_account_id = :bankAccountId AND bucket = :bucket AND balance >= :amount", nativeQuery = true)
+    int debitIfSufficient(@Param("bankAccountId") UUID bankAccountId, @Param("bucket") int bucket, @Param("amount") BigDecimal amount);
+
+    // locks every bucket of the account, always in bucket order
+    @Query(value = "SELECT balance FROM bank_account_bucket WHERE bank_account_id = :bankAccountId ORDER BY bucket FOR UPDATE", nativeQuery = true)
+    List<BigDecimal> lockBalances(@Param("bankAccountId") UUID bankAccountId);
+
+    @Modifying
+    @Query(value = "UPDATE bank_account_bucket SET balance = 0 WHERE bank_account_id = :bankAccountId", nativeQuery = true)
+    int empty(@Param("bankAccountId") UUID bankAccountId);
+
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM bank_account_bucket WHERE bank_account_id = :bankAccountId", nativeQuery = true)
+    BigDecimal sumBalance(@Param("bankAccountId") UUID bankAccountId);
+}
@@ -2,20 +2,55 @@ package test.bank.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import test.bank.domain.banking.BankAccount;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, UUID> {
     Optional<BankAccount> findByAccountNumber(String accountNumber);
 
+    @Query("select a.accountNumber from bank_account a where a.stripes > 0")
+    List<String> findStripedAccountNumbers();
+
+    List<BankAccount> findAllByAccountNumberIn(Collection<String> accountNumbers);
+
+    List<BankAccount> findByAccountNumberGreaterThanOrderByAccountNumberAsc(String accountNumber, Limit limit);
+
+    // rows are pulled through a server side cursor, fetch size rows at a time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BankAccount> streamAllByOrderByAccountNumberAsc();
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
     Optional<BankAccount> getByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    List<BankAccount> getAllByAccountNumberInOrderById(Collection<String> accountNumbers);
+
+    @Query(value = "SELECT nextval('account_number_seq')", nativeQuery = true)
+    long reserveAccountNumberBlock();
+
+    @Query(value = "SELECT increment_by FROM pg_sequences WHERE sequencename = 'account_number_seq'", nativeQuery = true)
+    long findAccountNumberBlockSize();
+
+    @Query(value = "UPDATE bank_account SET balance = balance - :amount, version = version + 1 WHERE account_number = :accountNumber AND balance >= :amount RETURNING *", nativeQuery = true)
+    Optional<BankAccount> debitIfSufficient(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    @Query(value = "UPDATE bank_account SET balance = balance + :amount, version = version + 1 WHERE account_number = :accountNumber RETURNING *", nativeQuery = true)
+    Optional<BankAccount> credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
 }
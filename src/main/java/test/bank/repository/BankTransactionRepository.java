@@ -1,8 +1,11 @@
 package test.bank.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import test.bank.domain.banking.transaction.BankTransaction;
+import test.bank.domain.banking.transaction.StatementEntry;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,4 +14,35 @@ import java.util.UUID;
 public interface BankTransactionRepository extends JpaRepository<BankTransaction, UUID> {
     List<BankTransaction> findAllByBankAccountAccountNumber(String bankAccountNumber);
 
+    @Query(value = """
+            SELECT t.id, t.timestamp, t.amount, t.flow, CAST(t.type AS varchar) AS type, v.account_number AS "visavisAccountNumber"
+            FROM bank_transaction t
+                     LEFT JOIN bank_account v ON v.id = t.visavis_id
+            WHERE t.bank_account_id = :accountId
+              AND t.timestamp >= :from
+              AND t.timestamp < :to
+            ORDER BY t.timestamp DESC, t.id DESC
+            LIMIT :limit""", nativeQuery = true)
+    List<StatementEntry> findStatementPage(@Param("accountId") UUID accountId,
+                                           @Param("from") long from,
+                                           @Param("to") long to,
+                                           @Param("limit") int limit);
+
+    // keyset continuation: the row value comparison walks the (bank_account_id, timestamp, id) index backwards.
+    // Partitions are not pruned on row comparisons, the redundant timestamp bound skips the months above the cursor
+    @Query(value = """
+            SELECT t.id, t.timestamp, t.amount, t.flow, CAST(t.type AS varchar) AS type, v.account_number AS "visavisAccountNumber"
+            FROM bank_transaction t
+                     LEFT JOIN bank_account v ON v.id = t.visavis_id
+            WHERE t.bank_account_id = :accountId
+              AND t.timestamp >= :from
+              AND t.timestamp <= :cursorTimestamp
+              AND (t.timestamp, t.id) < (:cursorTimestamp, :cursorId)
+            ORDER BY t.timestamp DESC, t.id DESC
+            LIMIT :limit""", nativeQuery = true)
+    List<StatementEntry> findStatementPageAfter(@Param("accountId") UUID accountId,
+                                                @Param("from") long from,
+                                                @Param("cursorTimestamp") long cursorTimestamp,
+                                                @Param("cursorId") UUID cursorId,
+                                                @Param("limit") int limit);
 }
@@ -0,0 +1,61 @@
+package test.bank.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import test.bank.domain.banking.BankAccount;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBankAccountRepository {
+    private final DatabaseClient databaseClient;
+
+    // same rows and order as BankAccountRepository.getAllByAccountNumberInOrderById, the lock timeout is set on the connection
+    public Flux<BankAccount> lockAllInOrderById(Collection<String> accountNumbers) {
+        return databaseClient.sql("""
+                        SELECT id, balance, version, account_number, stripes
+                        FROM bank_account
+                        WHERE account_number IN (:accountNumbers)
+                        ORDER BY id
+                        FOR UPDATE""")
+                .bind("accountNumbers", accountNumbers)
+                .map(ReactiveBankAccountRepository::toBankAccount)
+                .all();
+    }
+
+    public Mono<Void> updateBalance(BankAccount account) {
+        return databaseClient.sql("UPDATE bank_account SET balance = :balance, version = version + 1 WHERE id = :id")
+                .bind("balance", account.getBalance())
+                .bind("id", account.getId())
+                .then();
+    }
+
+    // striped accounts hold part of their balance in bank_account_bucket
+    public Mono<BankAccount> findWithEffectiveBalance(String accountNumber) {
+        return databaseClient.sql("""
+                        SELECT a.id,
+                               a.balance + COALESCE((SELECT SUM(b.balance) FROM bank_account_bucket b WHERE b.bank_account_id = a.id), 0) AS balance,
+                               a.version, a.account_number, a.stripes
+                        FROM bank_account a
+                        WHERE a.account_number = :accountNumber""")
+                .bind("accountNumber", accountNumber)
+                .map(ReactiveBankAccountRepository::toBankAccount)
+                .one();
+    }
+
+    private static BankAccount toBankAccount(Readable row) {
+        var account = new BankAccount(row.get("id", UUID.class), row.get("balance", BigDecimal.class), row.get("account_number", String.class));
+        account.setVersion(row.get("version", Long.class));
+        account.setStripes(row.get("stripes", Integer.class));
+        return account;
+    }
+}
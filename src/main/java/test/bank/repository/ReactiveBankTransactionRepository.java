@@ -0,0 +1,59 @@
+package test.bank.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import test.bank.domain.banking.transaction.BankTransaction;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBankTransactionRepository {
+    private final DatabaseClient databaseClient;
+
+    // all rows in one multi-row INSERT, one round trip like the JDBC batch of the JPA path
+    public Mono<Void> insertAll(List<? extends BankTransaction> transactions) {
+        var sql = new StringBuilder("INSERT INTO bank_transaction (id, amount, timestamp, flow, bank_account_id, type, visavis_id) VALUES ");
+        for (int i = 0; i < transactions.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:id").append(i).append(", :amount").append(i).append(", :timestamp").append(i).append(", :flow").append(i)
+                    .append(", :account").append(i).append(", :type").append(i).append(", :visavis").append(i).append(')');
+        }
+        var spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < transactions.size(); i++) {
+            var transaction = transactions.get(i);
+            spec = spec.bind("id" + i, transaction.getId())
+                    .bind("amount" + i, transaction.getAmount())
+                    .bind("timestamp" + i, transaction.getTimestamp())
+                    .bind("flow" + i, transaction.getFlow().name())
+                    .bind("account" + i, transaction.getBankAccount().getId())
+                    .bind("type" + i, type(transaction));
+            spec = transaction instanceof TransferTransaction transfer
+                    ? spec.bind("visavis" + i, transfer.getVisavis().getId())
+                    : spec.bindNull("visavis" + i, UUID.class);
+        }
+        return spec.then();
+    }
+
+    // the discriminator values of the JPA subclasses
+    private static String type(BankTransaction transaction) {
+        if (transaction instanceof TransferTransaction) {
+            return "T";
+        }
+        if (transaction instanceof WithdrawTransaction) {
+            return "W";
+        }
+        if (transaction instanceof DepositTransaction) {
+            return "D";
+        }
+        throw new IllegalArgumentException("unknown transaction type: " + transaction.getClass());
+    }
+}
@@ -1,18 +1,25 @@
 package test.bank.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.BankAccountPage;
+import test.bank.exception.BankApplicationBadRequestException;
 import test.bank.exception.BankApplicationNegativeBalanceException;
 import test.bank.exception.BankApplicationNotFoundException;
 import test.bank.repository.BankAccountRepository;
 import test.bank.service.interfaces.AccountManagementService;
 import test.bank.service.interfaces.AccountNumberGeneratorService;
 import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +27,11 @@ public class AccountManagementServiceImpl implements AccountManagementService {
     private final BankAccountRepository bankAccountRepository;
     private final AccountNumberGeneratorService accountNumberGeneratorService;
     private final AccountTransactionsService accountTransactionsService;
+    private final EntityManager entityManager;
+    private final StripedBalanceService stripedBalanceService;
+
+    @Value("${app.bank.accounts.max-page-size:1000}")
+    private int maxPageSize;
 
     @Override
     @Transactional
@@ -40,11 +52,45 @@ public class AccountManagementServiceImpl implements AccountManagementService {
 
     @Override
     public List<BankAccount> findAll() {
-        return bankAccountRepository.findAll();
+        var accounts = bankAccountRepository.findAll();
+        accounts.forEach(this::withEffectiveBalance);
+        return accounts;
+    }
+
+    @Override
+    public BankAccountPage findPage(String afterAccountNumber, int size) {
+        if (size <= 0 || size > maxPageSize) {
+            throw new BankApplicationBadRequestException("size should be between 1 and " + maxPageSize);
+        }
+
+        var accounts = bankAccountRepository.findByAccountNumberGreaterThanOrderByAccountNumberAsc(afterAccountNumber == null ? "" : afterAccountNumber, Limit.of(size + 1));
+        accounts.forEach(this::withEffectiveBalance);
+        if (accounts.size() <= size) {
+            return new BankAccountPage(accounts, null);
+        }
+        var page = accounts.subList(0, size);
+        return new BankAccountPage(page, page.get(size - 1).getAccountNumber());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAccount(Consumer<BankAccount> consumer) {
+        try (var accounts = bankAccountRepository.streamAllByOrderByAccountNumberAsc()) {
+            accounts.forEach(account -> {
+                consumer.accept(withEffectiveBalance(account));
+                // keeps the persistence context, and with it the heap, from growing with the number of accounts
+                entityManager.detach(account);
+            });
+        }
     }
 
     @Override
     public BankAccount getByAccountNumber(String accountNumber) {
-        return bankAccountRepository.findByAccountNumber(accountNumber).orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+        return withEffectiveBalance(bankAccountRepository.findByAccountNumber(accountNumber).orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber)));
+    }
+
+    // striped accounts keep part of their balance in buckets outside the main row
+    private BankAccount withEffectiveBalance(BankAccount account) {
+        return account.isStriped() ? stripedBalanceService.withEffectiveBalance(account) : account;
     }
 }
@@ -2,18 +2,66 @@ package test.bank.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import test.bank.repository.BankAccountRepository;
 import test.bank.service.interfaces.AccountNumberGeneratorService;
-
-import java.math.BigInteger;
-import java.util.UUID;
+import test.bank.util.FeistelPermutation;
+import test.bank.util.LuhnUtil;
 
 @Service
 public class AccountNumberGeneratorServiceImpl implements AccountNumberGeneratorService {
-    @Value("${app.bank.account-number-length:16}")
-    private Integer accNumberLength;
+    private final BankAccountRepository bankAccountRepository;
+    private final int accNumberLength;
+    private final long domain;
+    private final FeistelPermutation permutation;
+
+    // the INCREMENT BY of account_number_seq, read with the first reservation
+    private long blockSize;
+    private long nextCounter;
+    private long blockEnd;
+
+    public AccountNumberGeneratorServiceImpl(BankAccountRepository bankAccountRepository,
+                                             @Value("${app.bank.account-number-length:16}") int accNumberLength,
+                                             @Value("${app.bank.account-number-key:6364136223846793005}") long key) {
+        // one digit is taken by the check digit, the rest has to fit into a long
+        if (accNumberLength < 2 || accNumberLength > 19) {
+            throw new IllegalArgumentException("account number length should be between 2 and 19");
+        }
+        this.bankAccountRepository = bankAccountRepository;
+        this.accNumberLength = accNumberLength;
+        long domain = 1;
+        for (int i = 1; i < accNumberLength; i++) {
+            domain *= 10;
+        }
+        this.domain = domain;
+        this.permutation = new FeistelPermutation(domain, key);
+    }
 
     @Override
     public String generateAccountNumber() {
-        return String.format("%010d", new BigInteger(UUID.randomUUID().toString().replace("-", ""), 16)).substring(0, accNumberLength);
+        long payload = permutation.permute(nextCounter());
+
+        var digits = new char[accNumberLength];
+        digits[accNumberLength - 1] = (char) ('0' + LuhnUtil.checkDigit(payload));
+        for (int i = accNumberLength - 2; i >= 0; i--) {
+            digits[i] = (char) ('0' + payload % 10);
+            payload /= 10;
+        }
+        return new String(digits);
+    }
+
+    // counters are unique across instances: each one only hands out values from blocks reserved in the database.
+    // The block size comes from the sequence itself, a configured size could overlap the blocks of other instances
+    private synchronized long nextCounter() {
+        if (nextCounter == blockEnd) {
+            if (blockSize == 0) {
+                blockSize = bankAccountRepository.findAccountNumberBlockSize();
+            }
+            nextCounter = bankAccountRepository.reserveAccountNumberBlock();
+            blockEnd = nextCounter + blockSize;
+        }
+        if (nextCounter >= domain) {
+            throw new IllegalStateException("account numbers are exhausted");
+        }
+        return nextCounter++;
     }
 }
@@ -0,0 +1,79 @@
+package test.bank.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import test.bank.domain.banking.transaction.StatementEntry;
+import test.bank.domain.banking.transaction.StatementPage;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountStatementService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AccountStatementServiceImpl implements AccountStatementService {
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+
+    @Value("${app.bank.statement.max-page-size:500}")
+    private int maxPageSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatementPage getStatement(String accountNumber, long from, long to, String cursor, int size) {
+        if (size <= 0 || size > maxPageSize) {
+            throw new BankApplicationBadRequestException("size should be between 1 and " + maxPageSize);
+        }
+        if (from >= to) {
+            throw new BankApplicationBadRequestException("from should be before to");
+        }
+
+        var account = bankAccountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+
+        // one extra row tells whether another page exists without a count query
+        List<StatementEntry> entries;
+        if (cursor == null || cursor.isEmpty()) {
+            entries = bankTransactionRepository.findStatementPage(account.getId(), from, to, size + 1);
+        } else {
+            var position = decodeCursor(cursor);
+            if (position.timestamp() >= to) {
+                throw new BankApplicationBadRequestException("cursor is outside of the requested range");
+            }
+            entries = bankTransactionRepository.findStatementPageAfter(account.getId(), from, position.timestamp(), position.id(), size + 1);
+        }
+
+        if (entries.size() <= size) {
+            return new StatementPage(entries, null);
+        }
+        var page = entries.subList(0, size);
+        var last = page.get(size - 1);
+        return new StatementPage(page, encodeCursor(last.getTimestamp(), last.getId()));
+    }
+
+    private static String encodeCursor(long timestamp, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            var separator = decoded.indexOf(':');
+            return new CursorPosition(Long.parseLong(decoded.substring(0, separator)), UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BankApplicationBadRequestException("malformed cursor");
+        }
+    }
+
+    private record CursorPosition(long timestamp, UUID id) {
+    }
+}
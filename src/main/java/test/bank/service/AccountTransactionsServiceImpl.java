@@ -1,10 +1,16 @@
 package test.bank.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import test.bank.aspect.RetryOnConcurrencyFailure;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
 import test.bank.domain.banking.transaction.DepositTransaction;
 import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
 import test.bank.domain.banking.transaction.TransferTransaction;
 import test.bank.domain.banking.transaction.WithdrawTransaction;
 import test.bank.exception.BankApplicationException;
@@ -13,34 +19,62 @@ import test.bank.exception.BankApplicationNotFoundException;
 import test.bank.repository.BankAccountRepository;
 import test.bank.repository.BankTransactionRepository;
 import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
 import test.bank.util.TimeUtil;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
+@RetryOnConcurrencyFailure
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bank.balance-mode", havingValue = "locking", matchIfMissing = true)
 public class AccountTransactionsServiceImpl implements AccountTransactionsService {
+    // operation tag of the phase timers
+    private static final String TRANSFER = "transfer";
+    private static final String WITHDRAW = "withdraw";
+    private static final String DEPOSIT = "deposit";
+    private static final String DEPOSIT_ALL = "depositAll";
+
     private final BankTransactionRepository bankTransactionRepository;
     private final BankAccountRepository bankAccountRepository;
-
+    private final TransferBatchProcessor transferBatchProcessor;
+    private final StripedBalanceService stripedBalanceService;
+    private final TransactionMetrics transactionMetrics;
 
     @Override
     @Transactional
     public TransferTransaction transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
             throw new BankApplicationException("amount should be positive");
         }
         if (senderAccountNumber.equals(receiverAccountNumber)) {
             throw new BankApplicationException("senderAccountNumber and receiverAccountNumber can not be identical");
         }
 
+        transactionMetrics.begin(TRANSFER);
         var timestamp = TimeUtil.currentTimeMillis();
 
-        var sender = bankAccountRepository.getByAccountNumber(senderAccountNumber).orElseThrow(() -> new BankApplicationNotFoundException());
-        var receiver = bankAccountRepository.getByAccountNumber(receiverAccountNumber).orElseThrow(() -> new BankApplicationNotFoundException());
+        BankAccount sender;
+        BankAccount receiver;
+        if (stripedBalanceService.isStriped(senderAccountNumber) || stripedBalanceService.isStriped(receiverAccountNumber)) {
+            // striped accounts skip the main row lock; a sweep may still take it, deadlocks that causes are retried
+            sender = transactionMetrics.lock(TRANSFER, senderAccountNumber, () -> stripedBalanceService.findForUpdate(senderAccountNumber));
+            receiver = transactionMetrics.lock(TRANSFER, receiverAccountNumber, () -> stripedBalanceService.findForUpdate(receiverAccountNumber));
+        } else {
+            // both rows are locked by a single query ordered by id, so opposite transfers can not deadlock
+            var accounts = transactionMetrics.lock(TRANSFER, senderAccountNumber, receiverAccountNumber,
+                    () -> bankAccountRepository.getAllByAccountNumberInOrderById(List.of(senderAccountNumber, receiverAccountNumber)));
+            sender = findLocked(accounts, senderAccountNumber);
+            receiver = findLocked(accounts, receiverAccountNumber);
+        }
 
-        if (sender.getBalance().subtract(amount).compareTo(BigDecimal.ZERO) < 0)
-            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + senderAccountNumber);
+        debit(TRANSFER, sender, amountMinorUnits);
+        credit(receiver, amountMinorUnits);
+        bankAccountRepository.save(sender);
+        bankAccountRepository.save(receiver);
 
         var senderTransaction = new TransferTransaction();
         senderTransaction.setFlow(MoneyFlow.OUT);
@@ -57,32 +91,33 @@ public class AccountTransactionsServiceImpl implements AccountTransactionsServic
         receiverTransaction.setVisavis(sender);
         senderTransaction.setVisavis(receiver);
 
-        receiver.setBalance(receiver.getBalance().add(amount));
-        sender.setBalance(sender.getBalance().subtract(amount));
-
         bankTransactionRepository.save(senderTransaction);
         bankTransactionRepository.save(receiverTransaction);
 
-        bankAccountRepository.save(sender);
-        bankAccountRepository.save(receiver);
-
         return senderTransaction;
     }
 
+    @Override
+    @Transactional
+    public List<TransferBatchResult> transferBatch(List<TransferOrder> orders) {
+        return transferBatchProcessor.apply(orders);
+    }
+
     @Override
     @Transactional
     public WithdrawTransaction withdraw(String senderAccountNumber, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
             throw new BankApplicationException("amount should be positive");
         }
 
+        transactionMetrics.begin(WITHDRAW);
         var timestamp = TimeUtil.currentTimeMillis();
 
-        var sender = bankAccountRepository.getByAccountNumber(senderAccountNumber).orElseThrow(() -> new BankApplicationNotFoundException());
+        var sender = findForUpdate(WITHDRAW, senderAccountNumber);
 
-        if (sender.getBalance().subtract(amount).compareTo(BigDecimal.ZERO) < 0) {
-            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + senderAccountNumber);
-        }
+        debit(WITHDRAW, sender, amountMinorUnits);
+        bankAccountRepository.save(sender);
 
         var senderTransaction = new WithdrawTransaction();
         senderTransaction.setFlow(MoneyFlow.OUT);
@@ -91,25 +126,26 @@ public class AccountTransactionsServiceImpl implements AccountTransactionsServic
 
         senderTransaction.setBankAccount(sender);
 
-        sender.setBalance(sender.getBalance().subtract(amount));
-
         bankTransactionRepository.save(senderTransaction);
 
-        bankAccountRepository.save(sender);
-
         return senderTransaction;
     }
 
     @Override
     @Transactional
     public DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
             throw new BankApplicationException("amount should be positive");
         }
 
+        transactionMetrics.begin(DEPOSIT);
         var timestamp = TimeUtil.currentTimeMillis();
 
-        var receiver = bankAccountRepository.getByAccountNumber(receiverAccountNumber).orElseThrow(() -> new BankApplicationNotFoundException());
+        var receiver = findForUpdate(DEPOSIT, receiverAccountNumber);
+
+        credit(receiver, amountMinorUnits);
+        bankAccountRepository.save(receiver);
 
         var receiverTransaction = new DepositTransaction();
         receiverTransaction.setFlow(MoneyFlow.IN);
@@ -118,12 +154,84 @@ public class AccountTransactionsServiceImpl implements AccountTransactionsServic
 
         receiverTransaction.setBankAccount(receiver);
 
-        receiver.setBalance(receiver.getBalance().add(amount));
-
         bankTransactionRepository.save(receiverTransaction);
 
+        return receiverTransaction;
+    }
+
+    // one row lock, one balance update and one batched ledger insert for all amounts
+    @Override
+    @Transactional
+    public List<DepositTransaction> depositAll(String receiverAccountNumber, List<BigDecimal> amounts) {
+        if (amounts.isEmpty()) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        long total = 0;
+        for (var amount : amounts) {
+            var amountMinorUnits = Money.toMinorUnits(amount);
+            if (amountMinorUnits <= 0) {
+                throw new BankApplicationException("amount should be positive");
+            }
+            total = Math.addExact(total, amountMinorUnits);
+        }
+
+        transactionMetrics.begin(DEPOSIT_ALL);
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var receiver = findForUpdate(DEPOSIT_ALL, receiverAccountNumber);
+
+        credit(receiver, total);
         bankAccountRepository.save(receiver);
 
-        return receiverTransaction;
+        var receiverTransactions = new ArrayList<DepositTransaction>(amounts.size());
+        for (var amount : amounts) {
+            receiverTransactions.add(new DepositTransaction(amount, timestamp, receiver, MoneyFlow.IN));
+        }
+
+        bankTransactionRepository.saveAll(receiverTransactions);
+
+        return receiverTransactions;
+    }
+
+    private BankAccount findForUpdate(String operation, String accountNumber) {
+        if (stripedBalanceService.isStriped(accountNumber)) {
+            return transactionMetrics.lock(operation, accountNumber, () -> stripedBalanceService.findForUpdate(accountNumber));
+        }
+        return transactionMetrics.lock(operation, accountNumber, () -> bankAccountRepository.getByAccountNumber(accountNumber).orElseThrow(() -> new BankApplicationNotFoundException()));
+    }
+
+    private void debit(String operation, BankAccount account, long amountMinorUnits) {
+        if (account.isStriped()) {
+            try {
+                stripedBalanceService.debit(account, Money.toBigDecimal(amountMinorUnits));
+            } catch (BankApplicationNegativeBalanceException e) {
+                transactionMetrics.insufficientFunds(operation);
+                throw e;
+            }
+            return;
+        }
+        if (!account.covers(amountMinorUnits)) {
+            transactionMetrics.insufficientFunds(operation);
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + account.getAccountNumber());
+        }
+        account.debit(amountMinorUnits);
+    }
+
+    private void credit(BankAccount account, long amountMinorUnits) {
+        if (account.isStriped()) {
+            stripedBalanceService.credit(account, Money.toBigDecimal(amountMinorUnits));
+            return;
+        }
+        account.credit(amountMinorUnits);
+    }
+
+    private BankAccount findLocked(List<BankAccount> accounts, String accountNumber) {
+        return accounts.stream()
+                .filter(account -> account.getAccountNumber().equals(accountNumber))
+                .findFirst()
+                .orElseThrow(() -> {
+                    transactionMetrics.notFound(TRANSFER);
+                    return new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber);
+                });
     }
 }
@@ -0,0 +1,270 @@
+package test.bank.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.journal.TransactionJournal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Persists the ledger rows of the sharded engine in the background. Every batch is one statement that inserts
+// the rows and moves the balances by the amounts of the rows that were actually inserted, so the database
+// always holds a balance that matches its ledger and a batch written twice changes nothing. With a journal,
+// submitted operations are appended to it first and whatever the previous run left there is written on startup.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.bank.balance-mode", havingValue = "sharded")
+public class AsyncLedgerWriter {
+    private static final String INSERT_AND_APPLY = """
+            WITH entry AS (
+                SELECT *
+                FROM unnest(?::uuid[], ?::numeric[], ?::bigint[], ?::varchar[], ?::uuid[], ?::varchar[], ?::uuid[])
+                         AS e(id, amount, timestamp, flow, bank_account_id, type, visavis_id)
+            ), inserted AS (
+                INSERT INTO bank_transaction (id, amount, timestamp, flow, bank_account_id, type, visavis_id)
+                SELECT id, amount, timestamp, flow, bank_account_id, type, visavis_id FROM entry
+                ON CONFLICT DO NOTHING
+                RETURNING bank_account_id, CASE WHEN flow = 'IN' THEN amount ELSE -amount END AS delta
+            )
+            UPDATE bank_account a
+            SET balance = a.balance + d.delta,
+                version = a.version + 1
+            FROM (SELECT bank_account_id, SUM(delta) AS delta FROM inserted GROUP BY bank_account_id) d
+            WHERE a.id = d.bank_account_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionJournal journal;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryBackoffMillis;
+    private final long maxBacklog;
+    private final BlockingQueue<PendingOperation> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLedgerWriter(JdbcTemplate jdbcTemplate,
+                             @Nullable TransactionJournal journal,
+                             @Value("${app.bank.sharded.ledger-batch-size:500}") int batchSize,
+                             @Value("${app.bank.sharded.ledger-flush-interval-ms:5}") long flushIntervalMillis,
+                             @Value("${app.bank.sharded.ledger-retry-backoff-ms:1000}") long retryBackoffMillis,
+                             @Value("${app.bank.sharded.max-backlog:100000}") long maxBacklog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBacklog = maxBacklog;
+        if (journal != null) {
+            recover(journal);
+        }
+        this.writer = new Thread(this::run, "ledger-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // returns the journal position of the operation, it may only be acknowledged after awaitDurable of it.
+    // Rejected while max-backlog rows wait for the database, the rows only live in memory until then
+    public long submit(List<LedgerEntry> entries) {
+        // one lock keeps the queue in submission order, checkpoints and isPersisted rely on that
+        synchronized (queue) {
+            if (backlog() + entries.size() > maxBacklog) {
+                throw new BankApplicationConcurrencyException("ledger backlog of " + backlog() + " rows is full");
+            }
+            long position = journal != null ? journal.append(entries) : 0;
+            submitted.addAndGet(entries.size());
+            queue.add(new PendingOperation(entries, position));
+            return position;
+        }
+    }
+
+    // number of rows submitted so far, everything up to it is in the database once isPersisted returns true
+    public long submittedRows() {
+        return submitted.get();
+    }
+
+    public boolean isPersisted(long submittedRows) {
+        return persisted.get() >= submittedRows;
+    }
+
+    public void awaitDurable(long position) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.awaitDurable(position);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted before the journal write was durable", e);
+        }
+    }
+
+    // waits until everything submitted before the call is in the database
+    public boolean awaitPersisted(Duration timeout) throws InterruptedException {
+        long target = submitted.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (persisted) {
+            while (persisted.get() < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                persisted.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    public long backlog() {
+        return submitted.get() - persisted.get();
+    }
+
+    private void recover(TransactionJournal journal) {
+        var batch = new ArrayList<LedgerEntry>(batchSize);
+        try {
+            journal.replay(entries -> {
+                batch.addAll(entries);
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            // only once everything is in the database
+            journal.discardRecovered();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run() {
+        var batch = new ArrayList<LedgerEntry>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var operation = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (operation == null) {
+                    continue;
+                }
+                // whole operations only, so the checkpoint never splits the legs of a transfer
+                long position = operation.position;
+                batch.addAll(operation.entries);
+                while (batch.size() < batchSize && (operation = queue.poll()) != null) {
+                    batch.addAll(operation.entries);
+                    position = operation.position;
+                }
+                if (!writeUntilDone(batch)) {
+                    // neither counted nor checkpointed: with a journal every record from this batch on is replayed
+                    // on the next start, without one they are lost
+                    return;
+                }
+                synchronized (persisted) {
+                    persisted.addAndGet(batch.size());
+                    persisted.notifyAll();
+                }
+                batch.clear();
+                checkpoint(position);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void checkpoint(long position) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.checkpoint(position);
+        } catch (IOException e) {
+            log.warn("[checkpoint] deleting written journal segments failed: {}", e.getMessage());
+        }
+    }
+
+    // false once shutdown stopped the retries before the batch was written
+    private boolean writeUntilDone(List<LedgerEntry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                write(batch);
+                return true;
+            } catch (DataAccessException e) {
+                // the rows are kept and retried until the database is back
+                log.error("[writeUntilDone] writing {} ledger rows failed, retrying: {}", batch.size(), e.getMessage());
+                if (!running) {
+                    return false;
+                }
+                Thread.sleep(retryBackoffMillis);
+            }
+        }
+    }
+
+    private void write(List<LedgerEntry> batch) {
+        int size = batch.size();
+        var ids = new UUID[size];
+        var amounts = new BigDecimal[size];
+        var timestamps = new Long[size];
+        var flows = new String[size];
+        var accountIds = new UUID[size];
+        var types = new String[size];
+        var visavisIds = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            var entry = batch.get(i);
+            ids[i] = entry.getId();
+            amounts[i] = entry.getAmount();
+            timestamps[i] = entry.getTimestamp();
+            flows[i] = entry.getFlow().name();
+            accountIds[i] = entry.getBankAccountId();
+            types[i] = String.valueOf(entry.getType());
+            visavisIds[i] = entry.getVisavisId();
+        }
+
+        jdbcTemplate.update(INSERT_AND_APPLY, ps -> {
+            var connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("uuid", ids));
+            ps.setArray(2, connection.createArrayOf("numeric", amounts));
+            ps.setArray(3, connection.createArrayOf("bigint", timestamps));
+            ps.setArray(4, connection.createArrayOf("varchar", flows));
+            ps.setArray(5, connection.createArrayOf("uuid", accountIds));
+            ps.setArray(6, connection.createArrayOf("varchar", types));
+            ps.setArray(7, connection.createArrayOf("uuid", visavisIds));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        long unwritten = backlog();
+        if (unwritten == 0) {
+            return;
+        }
+        if (journal != null) {
+            log.error("[shutdown] {} ledger rows were not written, the journal replays them on the next start", unwritten);
+        } else {
+            log.error("[shutdown] {} ledger rows were not written and are lost", unwritten);
+        }
+    }
+
+    private record PendingOperation(List<LedgerEntry> entries, long position) {
+    }
+}
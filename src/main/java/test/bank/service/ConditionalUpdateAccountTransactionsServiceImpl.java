@@ -0,0 +1,180 @@
+package test.bank.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import test.bank.aspect.RetryOnConcurrencyFailure;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.util.TimeUtil;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RetryOnConcurrencyFailure
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bank.balance-mode", havingValue = "conditional-update")
+public class ConditionalUpdateAccountTransactionsServiceImpl implements AccountTransactionsService {
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransferBatchProcessor transferBatchProcessor;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public TransferTransaction transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        if (senderAccountNumber.equals(receiverAccountNumber)) {
+            throw new BankApplicationException("senderAccountNumber and receiverAccountNumber can not be identical");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        // rows are always updated in account number order, so opposite transfers can not deadlock
+        BankAccount sender;
+        BankAccount receiver;
+        if (senderAccountNumber.compareTo(receiverAccountNumber) < 0) {
+            sender = debit(senderAccountNumber, amount);
+            receiver = credit(receiverAccountNumber, amount);
+        } else {
+            receiver = credit(receiverAccountNumber, amount);
+            sender = debit(senderAccountNumber, amount);
+        }
+
+        var senderTransaction = new TransferTransaction();
+        senderTransaction.setFlow(MoneyFlow.OUT);
+        senderTransaction.setAmount(amount);
+        senderTransaction.setTimestamp(timestamp);
+        senderTransaction.setBankAccount(sender);
+        senderTransaction.setVisavis(receiver);
+
+        var receiverTransaction = new TransferTransaction();
+        receiverTransaction.setFlow(MoneyFlow.IN);
+        receiverTransaction.setAmount(amount);
+        receiverTransaction.setTimestamp(timestamp);
+        receiverTransaction.setBankAccount(receiver);
+        receiverTransaction.setVisavis(sender);
+
+        bankTransactionRepository.save(senderTransaction);
+        bankTransactionRepository.save(receiverTransaction);
+
+        return senderTransaction;
+    }
+
+    @Override
+    @Transactional
+    public List<TransferBatchResult> transferBatch(List<TransferOrder> orders) {
+        return transferBatchProcessor.apply(orders);
+    }
+
+    @Override
+    @Transactional
+    public WithdrawTransaction withdraw(String senderAccountNumber, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var sender = debit(senderAccountNumber, amount);
+
+        var senderTransaction = new WithdrawTransaction();
+        senderTransaction.setFlow(MoneyFlow.OUT);
+        senderTransaction.setAmount(amount);
+        senderTransaction.setTimestamp(timestamp);
+        senderTransaction.setBankAccount(sender);
+
+        bankTransactionRepository.save(senderTransaction);
+
+        return senderTransaction;
+    }
+
+    @Override
+    @Transactional
+    public DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var receiver = credit(receiverAccountNumber, amount);
+
+        var receiverTransaction = new DepositTransaction();
+        receiverTransaction.setFlow(MoneyFlow.IN);
+        receiverTransaction.setAmount(amount);
+        receiverTransaction.setTimestamp(timestamp);
+        receiverTransaction.setBankAccount(receiver);
+
+        bankTransactionRepository.save(receiverTransaction);
+
+        return receiverTransaction;
+    }
+
+    @Override
+    @Transactional
+    public List<DepositTransaction> depositAll(String receiverAccountNumber, List<BigDecimal> amounts) {
+        if (amounts.isEmpty() || amounts.stream().anyMatch(amount -> amount.compareTo(BigDecimal.ZERO) <= 0)) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var total = amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        var receiver = credit(receiverAccountNumber, total);
+
+        var receiverTransactions = new ArrayList<DepositTransaction>(amounts.size());
+        for (var amount : amounts) {
+            receiverTransactions.add(new DepositTransaction(amount, timestamp, receiver, MoneyFlow.IN));
+        }
+
+        bankTransactionRepository.saveAll(receiverTransactions);
+
+        return receiverTransactions;
+    }
+
+    private BankAccount debit(String accountNumber, BigDecimal amount) {
+        var account = bankAccountRepository.debitIfSufficient(accountNumber, amount);
+        if (account.isEmpty()) {
+            // no row was updated: either the account is missing or the guard rejected the debit
+            if (bankAccountRepository.findByAccountNumber(accountNumber).isEmpty()) {
+                throw new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber);
+            }
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + accountNumber);
+        }
+        return refreshIfParticipating(account.get());
+    }
+
+    private BankAccount credit(String accountNumber, BigDecimal amount) {
+        var account = bankAccountRepository.credit(accountNumber, amount)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+        return refreshIfParticipating(account);
+    }
+
+    // an outer transaction may already hold this account in its persistence context, in which case
+    // the RETURNING row is not copied onto the managed instance
+    private BankAccount refreshIfParticipating(BankAccount account) {
+        if (!TransactionAspectSupport.currentTransactionStatus().isNewTransaction()) {
+            entityManager.refresh(account);
+        }
+        return account;
+    }
+}
@@ -0,0 +1,90 @@
+package test.bank.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import test.bank.util.SpaceSavingSketch;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Which accounts the locking path waits on most, by total lock-wait time. Each stripe is an independent
+// Space-Saving sketch behind its own lock; a thread records into the stripe of its id and moves on to the next
+// one if that is busy, and drops the sample if none is free, so profiling never blocks a transaction.
+// Memory is stripes * capacity entries regardless of the number of accounts.
+@Component
+public class ContentionProfiler {
+    private static final int PROBES = 2;
+
+    private final SpaceSavingSketch[] sketches;
+    private final ReentrantLock[] locks;
+    private final LongAdder dropped = new LongAdder();
+
+    public ContentionProfiler(@Value("${app.bank.contention.stripes:16}") int stripes,
+                              @Value("${app.bank.contention.capacity:128}") int capacity) {
+        this.sketches = new SpaceSavingSketch[stripes];
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            sketches[i] = new SpaceSavingSketch(capacity);
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void record(String accountNumber, long waitNanos) {
+        int stripe = (int) (Thread.currentThread().getId() % sketches.length);
+        for (int probe = 0; probe < PROBES; probe++) {
+            var lock = locks[stripe];
+            if (lock.tryLock()) {
+                try {
+                    sketches[stripe].add(accountNumber, waitNanos);
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            stripe = (stripe + 1) % sketches.length;
+        }
+        dropped.increment();
+    }
+
+    // stripes are summed per account. Errors add up with the weights; a stripe that evicted the account may
+    // additionally hide up to its smallest weight, heavy accounts are kept by every stripe they load
+    public List<SpaceSavingSketch.Counter> top(int limit) {
+        var merged = new HashMap<String, SpaceSavingSketch.Counter>();
+        for (int i = 0; i < sketches.length; i++) {
+            List<SpaceSavingSketch.Counter> counters;
+            locks[i].lock();
+            try {
+                counters = sketches[i].counters();
+            } finally {
+                locks[i].unlock();
+            }
+            for (var counter : counters) {
+                merged.merge(counter.key(), counter, (a, b) ->
+                        new SpaceSavingSketch.Counter(a.key(), a.weight() + b.weight(), a.hits() + b.hits(), a.error() + b.error()));
+            }
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(SpaceSavingSketch.Counter::weight).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < sketches.length; i++) {
+            locks[i].lock();
+            try {
+                sketches[i].clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        dropped.reset();
+    }
+}
@@ -0,0 +1,167 @@
+package test.bank.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.exception.BankApplicationException;
+import test.bank.service.interfaces.AccountTransactionsService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Gathers deposits to the same account that arrive within a short window and applies them with a single
+// depositAll call: one lock, one balance update and one batched ledger insert. Every caller waits for the
+// commit and gets its own ledger row back.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.bank.deposit-coalescing.enabled", havingValue = "true")
+public class DepositCoalescer {
+    private final AccountTransactionsService accountTransactionsService;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    // only times the windows, the flushes block on row locks and run on the workers
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final ConcurrentHashMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    public DepositCoalescer(AccountTransactionsService accountTransactionsService,
+                            @Value("${app.bank.deposit-coalescing.window-micros:2000}") long windowMicros,
+                            @Value("${app.bank.deposit-coalescing.max-batch-size:100}") int maxBatchSize,
+                            @Value("${app.bank.deposit-coalescing.threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+                            @Value("${app.bank.deposit-coalescing.timeout-ms:30000}") long timeoutMillis) {
+        this.accountTransactionsService = accountTransactionsService;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    public DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount) {
+        try {
+            return submit(receiverAccountNumber, amount).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new BankApplicationConcurrencyException("deposit was not applied within " + timeoutMillis + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<DepositTransaction> submit(String receiverAccountNumber, BigDecimal amount) {
+        // checked here so that one invalid amount can not fail the whole batch
+        if (Money.toMinorUnits(amount) <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var future = new CompletableFuture<DepositTransaction>();
+        while (true) {
+            var batch = openBatches.computeIfAbsent(receiverAccountNumber, accountNumber -> {
+                var created = new Batch(accountNumber);
+                scheduler.schedule(() -> dispatch(created), windowMicros, TimeUnit.MICROSECONDS);
+                return created;
+            });
+            if (batch.add(amount, future, maxBatchSize)) {
+                if (batch.isFull(maxBatchSize)) {
+                    openBatches.remove(receiverAccountNumber, batch);
+                    dispatch(batch);
+                }
+                return future;
+            }
+            // the batch is full or already flushing, make room for a new one
+            openBatches.remove(receiverAccountNumber, batch);
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            workers.execute(() -> flush(batch));
+        } catch (RejectedExecutionException e) {
+            // shutting down, the batch will never run
+            if (batch.close()) {
+                openBatches.remove(batch.accountNumber, batch);
+                batch.futures.forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    private void flush(Batch batch) {
+        if (!batch.close()) {
+            return;
+        }
+        openBatches.remove(batch.accountNumber, batch);
+
+        try {
+            var transactions = accountTransactionsService.depositAll(batch.accountNumber, batch.amounts);
+            for (int i = 0; i < transactions.size(); i++) {
+                batch.futures.get(i).complete(transactions.get(i));
+            }
+        } catch (Throwable e) {
+            log.warn("[flush] deposits to {} failed: {}", batch.accountNumber, e.getMessage());
+            batch.futures.forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // delayed flushes that are already scheduled still run, so no caller is left waiting
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static class Batch {
+        private final String accountNumber;
+        private final List<BigDecimal> amounts = new ArrayList<>();
+        private final List<CompletableFuture<DepositTransaction>> futures = new ArrayList<>();
+        private boolean closed;
+
+        private Batch(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        private synchronized boolean add(BigDecimal amount, CompletableFuture<DepositTransaction> future, int maxBatchSize) {
+            if (closed || amounts.size() >= maxBatchSize) {
+                return false;
+            }
+            amounts.add(amount);
+            futures.add(future);
+            return true;
+        }
+
+        private synchronized boolean isFull(int maxBatchSize) {
+            return amounts.size() >= maxBatchSize;
+        }
+
+        private synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package test.bank.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import test.bank.controller.AccountManagementController;
+import test.bank.controller.AccountTransactionController;
+import test.bank.controller.advice.ExceptionControllerAdvice;
+import test.bank.dto.response.latency.EndpointLatencyResponseDto;
+import test.bank.dto.response.latency.LatencyResponseDto;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Request latency of the account endpoints in HdrHistograms, one per endpoint and outcome. The outcome is success
+// or the ExceptionControllerAdvice method that answered the request. All recorders are created once the handler
+// mappings are known, so the request thread only does two map lookups with existing keys and a wait-free
+// Recorder.recordValue, none of which allocates. Readers take interval snapshots, each one covers the time since
+// the previous snapshot.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EndpointLatencyRecorder {
+    public static final String SUCCESS = "success";
+    public static final String UNHANDLED = "unhandled";
+
+    private static final Set<Class<?>> CONTROLLERS = Set.of(AccountTransactionController.class, AccountManagementController.class);
+
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+    private final ExceptionHandlerMethodResolver adviceResolver = new ExceptionHandlerMethodResolver(ExceptionControllerAdvice.class);
+
+    // written once on startup, read without locking afterwards
+    private volatile Map<Method, OutcomeRecorder[]> endpoints = Map.of();
+    private volatile Map<Method, Integer> adviceOutcomes = Map.of();
+    private long intervalStartMillis = System.currentTimeMillis();
+
+    public EndpointLatencyRecorder(@Value("${app.bank.latency.highest-trackable-micros:60000000}") long highestTrackableMicros,
+                                   @Value("${app.bank.latency.significant-digits:3}") int significantDigits) {
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.significantDigits = significantDigits;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerEndpoints(ApplicationReadyEvent event) {
+        var handlerMapping = event.getApplicationContext().getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        register(handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(entry -> CONTROLLERS.contains(entry.getValue().getBeanType()))
+                .collect(Collectors.toMap(entry -> entry.getValue().getMethod(), entry -> name(entry.getKey()))));
+    }
+
+    // handler method -> endpoint name, e.g. "POST /api/transaction/transfer"
+    public void register(Map<Method, String> handlers) {
+        var outcomes = new HashMap<Method, Integer>();
+        var outcomeNames = new ArrayList<String>();
+        outcomeNames.add(SUCCESS);
+        outcomeNames.add(UNHANDLED);
+        MethodIntrospector.selectMethods(ExceptionControllerAdvice.class,
+                        (ReflectionUtils.MethodFilter) method -> AnnotatedElementUtils.hasAnnotation(method, ExceptionHandler.class))
+                .stream()
+                .sorted(Comparator.comparing(Method::getName))
+                .forEach(method -> {
+                    outcomes.put(method, outcomeNames.size());
+                    outcomeNames.add(outcome(method));
+                });
+
+        var registered = new HashMap<Method, OutcomeRecorder[]>();
+        handlers.forEach((method, name) -> {
+            var recorders = new OutcomeRecorder[outcomeNames.size()];
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i] = new OutcomeRecorder(name, outcomeNames.get(i), new Recorder(highestTrackableMicros, significantDigits));
+            }
+            registered.put(method, recorders);
+        });
+        adviceOutcomes = Map.copyOf(outcomes);
+        endpoints = Map.copyOf(registered);
+    }
+
+    // exception is the one the advice answered with, null on success; other handlers are ignored
+    public void record(Method handler, Throwable exception, long elapsedNanos) {
+        var recorders = endpoints.get(handler);
+        if (recorders != null) {
+            recorders[exception == null ? 0 : outcome(exception)].record(elapsedNanos, highestTrackableMicros);
+        }
+    }
+
+    // the exception left the dispatcher without a response from the advice
+    public void recordUnhandled(Method handler, long elapsedNanos) {
+        var recorders = endpoints.get(handler);
+        if (recorders != null) {
+            recorders[1].record(elapsedNanos, highestTrackableMicros);
+        }
+    }
+
+    public synchronized LatencyResponseDto snapshot() {
+        long from = intervalStartMillis;
+        long to = System.currentTimeMillis();
+        intervalStartMillis = to;
+        var result = new ArrayList<EndpointLatencyResponseDto>();
+        endpoints.values().stream()
+                .flatMap(Arrays::stream)
+                .sorted(Comparator.comparing((OutcomeRecorder recorder) -> recorder.endpoint).thenComparing(recorder -> recorder.outcome))
+                .forEach(recorder -> {
+                    var histogram = recorder.interval();
+                    if (histogram.getTotalCount() > 0) {
+                        result.add(EndpointLatencyResponseDto.of(recorder.endpoint, recorder.outcome, histogram));
+                    }
+                });
+        return new LatencyResponseDto(from, to, result);
+    }
+
+    private static String name(RequestMappingInfo info) {
+        var methods = info.getMethodsCondition().getMethods().stream().map(Enum::name).collect(Collectors.toCollection(TreeSet::new));
+        return String.join(",", methods) + " " + String.join(",", new TreeSet<>(info.getPatternValues()));
+    }
+
+    // handleBankApplicationNotFoundException -> bankApplicationNotFoundException; the inherited
+    // ResponseEntityExceptionHandler.handleException (validation, unreadable body, ...) becomes "exception"
+    private static String outcome(Method method) {
+        var name = method.getName().startsWith("handle") ? method.getName().substring("handle".length()) : method.getName();
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private int outcome(Throwable exception) {
+        var handler = adviceResolver.resolveMethodByThrowable(exception);
+        var index = handler != null ? adviceOutcomes.get(handler) : null;
+        return index != null ? index : 1;
+    }
+
+    private static final class OutcomeRecorder {
+        private final String endpoint;
+        private final String outcome;
+        private final Recorder recorder;
+        // reused between snapshots, only touched under the snapshot lock
+        private Histogram interval;
+
+        private OutcomeRecorder(String endpoint, String outcome, Recorder recorder) {
+            this.endpoint = endpoint;
+            this.outcome = outcome;
+            this.recorder = recorder;
+        }
+
+        private void record(long elapsedNanos, long highestTrackableMicros) {
+            // clamped so a pathological request can not throw out of the filter
+            recorder.recordValue(Math.min(elapsedNanos / 1000, highestTrackableMicros));
+        }
+
+        private Histogram interval() {
+            interval = recorder.getIntervalHistogram(interval);
+            return interval;
+        }
+    }
+}
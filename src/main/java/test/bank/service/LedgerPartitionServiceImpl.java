@@ -0,0 +1,128 @@
+package test.bank.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.bank.service.interfaces.LedgerPartitionService;
+import test.bank.util.TimeUtil;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerPartitionServiceImpl implements LedgerPartitionService {
+    private static final String LEDGER_TABLE = "bank_transaction";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(LEDGER_TABLE + "_(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.bank.ledger-partitions.months-ahead:3}")
+    private int monthsAhead;
+    // 0 keeps every partition attached
+    @Value("${app.bank.ledger-partitions.retention-months:0}")
+    private int retentionMonths;
+    @Value("${app.bank.ledger-partitions.detach-lock-timeout-ms:1000}")
+    private long detachLockTimeoutMillis;
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.bank.ledger-partitions.cron:0 0 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        var currentMonth = YearMonth.from(Instant.ofEpochMilli(TimeUtil.currentTimeMillis()).atZone(ZoneOffset.UTC));
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(currentMonth.plusMonths(i));
+            } catch (DataAccessException e) {
+                // e.g. the default partition already holds rows of that month, or another node created it concurrently
+                log.warn("[maintainPartitions] can not create ledger partition for {}: {}", currentMonth.plusMonths(i), e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            var detached = detachPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+            if (!detached.isEmpty()) {
+                log.info("[maintainPartitions] detached ledger partitions: {}", detached);
+            }
+        }
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF " + LEDGER_TABLE
+                + " FOR VALUES FROM (" + startMillis(month) + ") TO (" + startMillis(month.plusMonths(1)) + ")");
+    }
+
+    @Override
+    public List<YearMonth> detachPartitionsBefore(YearMonth month) {
+        var detached = new ArrayList<YearMonth>();
+        for (var partition : findAttachedPartitions()) {
+            if (partition.isBefore(month)) {
+                try {
+                    detachPartition(partition);
+                    detached.add(partition);
+                } catch (DataAccessException e) {
+                    // the ledger was busy, the partition stays attached until the next run
+                    log.warn("[detachPartitionsBefore] can not detach ledger partition {}: {}", partition, e.getMessage());
+                }
+            }
+        }
+        return detached;
+    }
+
+    // DETACH takes an ACCESS EXCLUSIVE lock on the ledger, and CONCURRENTLY is not available while the default
+    // partition exists. The lock wait is bounded, so transfers queue behind it for at most the lock timeout; the
+    // detach itself only changes the catalog. The cron runs off-peak for the same reason.
+    private void detachPartition(YearMonth partition) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMillis);
+            // the table is kept, so old history can still be archived or dropped explicitly
+            jdbcTemplate.execute("ALTER TABLE " + LEDGER_TABLE + " DETACH PARTITION " + partitionName(partition));
+        });
+    }
+
+    @Override
+    public List<YearMonth> findAttachedPartitions() {
+        var names = jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits
+                         JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                         JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = ?
+                """, String.class, LEDGER_TABLE);
+
+        var months = new ArrayList<YearMonth>();
+        for (var name : names) {
+            var matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return LEDGER_TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static long startMillis(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
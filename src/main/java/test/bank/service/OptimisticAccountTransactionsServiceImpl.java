@@ -0,0 +1,178 @@
+package test.bank.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import test.bank.aspect.RetryOnConcurrencyFailure;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.util.TimeUtil;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// accounts are read without row locks, the version check on the balance UPDATE detects concurrent writers
+// and the whole call is repeated by the retry aspect
+@Service
+@RetryOnConcurrencyFailure
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bank.balance-mode", havingValue = "optimistic")
+public class OptimisticAccountTransactionsServiceImpl implements AccountTransactionsService {
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransferBatchProcessor transferBatchProcessor;
+
+    @Override
+    @Transactional
+    public TransferTransaction transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        if (senderAccountNumber.equals(receiverAccountNumber)) {
+            throw new BankApplicationException("senderAccountNumber and receiverAccountNumber can not be identical");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var sender = find(senderAccountNumber);
+        var receiver = find(receiverAccountNumber);
+
+        if (!sender.covers(amountMinorUnits))
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + senderAccountNumber);
+
+        var senderTransaction = new TransferTransaction();
+        senderTransaction.setFlow(MoneyFlow.OUT);
+        senderTransaction.setAmount(amount);
+        senderTransaction.setTimestamp(timestamp);
+
+        var receiverTransaction = new TransferTransaction();
+        receiverTransaction.setFlow(MoneyFlow.IN);
+        receiverTransaction.setAmount(amount);
+        receiverTransaction.setTimestamp(timestamp);
+
+        senderTransaction.setBankAccount(sender);
+        receiverTransaction.setBankAccount(receiver);
+        receiverTransaction.setVisavis(sender);
+        senderTransaction.setVisavis(receiver);
+
+        // hibernate.order_updates flushes both rows in id order, so opposite transfers take row locks in the same order
+        receiver.credit(amountMinorUnits);
+        sender.debit(amountMinorUnits);
+
+        bankTransactionRepository.save(senderTransaction);
+        bankTransactionRepository.save(receiverTransaction);
+
+        return senderTransaction;
+    }
+
+    @Override
+    @Transactional
+    public List<TransferBatchResult> transferBatch(List<TransferOrder> orders) {
+        return transferBatchProcessor.apply(orders, bankAccountRepository::findAllByAccountNumberIn);
+    }
+
+    @Override
+    @Transactional
+    public WithdrawTransaction withdraw(String senderAccountNumber, BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var sender = find(senderAccountNumber);
+
+        if (!sender.covers(amountMinorUnits)) {
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + senderAccountNumber);
+        }
+
+        var senderTransaction = new WithdrawTransaction();
+        senderTransaction.setFlow(MoneyFlow.OUT);
+        senderTransaction.setAmount(amount);
+        senderTransaction.setTimestamp(timestamp);
+        senderTransaction.setBankAccount(sender);
+
+        sender.debit(amountMinorUnits);
+
+        bankTransactionRepository.save(senderTransaction);
+
+        return senderTransaction;
+    }
+
+    @Override
+    @Transactional
+    public DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var receiver = find(receiverAccountNumber);
+
+        var receiverTransaction = new DepositTransaction();
+        receiverTransaction.setFlow(MoneyFlow.IN);
+        receiverTransaction.setAmount(amount);
+        receiverTransaction.setTimestamp(timestamp);
+        receiverTransaction.setBankAccount(receiver);
+
+        receiver.credit(amountMinorUnits);
+
+        bankTransactionRepository.save(receiverTransaction);
+
+        return receiverTransaction;
+    }
+
+    @Override
+    @Transactional
+    public List<DepositTransaction> depositAll(String receiverAccountNumber, List<BigDecimal> amounts) {
+        if (amounts.isEmpty()) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        long total = 0;
+        for (var amount : amounts) {
+            var amountMinorUnits = Money.toMinorUnits(amount);
+            if (amountMinorUnits <= 0) {
+                throw new BankApplicationException("amount should be positive");
+            }
+            total = Math.addExact(total, amountMinorUnits);
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+
+        var receiver = find(receiverAccountNumber);
+
+        var receiverTransactions = new ArrayList<DepositTransaction>(amounts.size());
+        for (var amount : amounts) {
+            receiverTransactions.add(new DepositTransaction(amount, timestamp, receiver, MoneyFlow.IN));
+        }
+
+        receiver.credit(total);
+
+        bankTransactionRepository.saveAll(receiverTransactions);
+
+        return receiverTransactions;
+    }
+
+    private BankAccount find(String accountNumber) {
+        return bankAccountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+    }
+}
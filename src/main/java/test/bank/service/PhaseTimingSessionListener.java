@@ -0,0 +1,28 @@
+package test.bank.service;
+
+import org.hibernate.SessionEventListener;
+
+// Hibernate creates one per session by class name, so the instance is confined to the thread using the session
+public class PhaseTimingSessionListener implements SessionEventListener {
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        TransactionMetrics.statementExecuted(System.nanoTime() - executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        TransactionMetrics.statementExecuted(System.nanoTime() - executionStart);
+    }
+}
@@ -0,0 +1,12 @@
+package test.bank.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// tells TransactionMetrics which statement is about to run, the SQL itself is passed on unchanged
+public class PhaseTimingStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        TransactionMetrics.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,249 @@
+package test.bank.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.ReactiveBankAccountRepository;
+import test.bank.repository.ReactiveBankTransactionRepository;
+import test.bank.service.interfaces.ReactiveAccountTransactionsService;
+import test.bank.util.TimeUtil;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The locking mode on R2DBC: the same SELECT ... FOR UPDATE in id order, balance checks in minor units, ledger
+// rows in one insert and retries on lock timeouts and deadlocks with the backoff of ConcurrencyRetryAspect.
+// No thread is held while a row lock or the database is awaited.
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveAccountTransactionsServiceImpl implements ReactiveAccountTransactionsService {
+    // lock_not_available, deadlock_detected, serialization_failure
+    private static final Set<String> CONCURRENCY_FAILURES = Set.of("55P03", "40P01", "40001");
+
+    private final ReactiveBankAccountRepository bankAccountRepository;
+    private final ReactiveBankTransactionRepository bankTransactionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+
+    public ReactiveAccountTransactionsServiceImpl(ReactiveBankAccountRepository bankAccountRepository,
+                                                  ReactiveBankTransactionRepository bankTransactionRepository,
+                                                  TransactionalOperator transactionalOperator,
+                                                  MeterRegistry meterRegistry,
+                                                  @Value("${app.bank.retry.max-attempts:4}") int maxAttempts,
+                                                  @Value("${app.bank.retry.initial-backoff-ms:20}") long initialBackoffMillis,
+                                                  @Value("${app.bank.retry.max-backoff-ms:500}") long maxBackoffMillis,
+                                                  @Value("${app.bank.retry.deadline-ms:5000}") long deadlineMillis) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    @Override
+    public Mono<TransferTransaction> transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
+        return retrying("transfer", Mono.defer(() -> {
+            var amountMinorUnits = positiveMinorUnits(amount);
+            if (senderAccountNumber.equals(receiverAccountNumber)) {
+                throw new BankApplicationException("senderAccountNumber and receiverAccountNumber can not be identical");
+            }
+            var timestamp = TimeUtil.currentTimeMillis();
+
+            // both rows are locked by a single query ordered by id, so opposite transfers can not deadlock
+            return bankAccountRepository.lockAllInOrderById(List.of(senderAccountNumber, receiverAccountNumber))
+                    .collectList()
+                    .flatMap(accounts -> {
+                        var sender = findLocked(accounts, senderAccountNumber);
+                        var receiver = findLocked(accounts, receiverAccountNumber);
+                        debit(sender, amountMinorUnits);
+                        credit(receiver, amountMinorUnits);
+
+                        var senderTransaction = new TransferTransaction();
+                        senderTransaction.setFlow(MoneyFlow.OUT);
+                        senderTransaction.setAmount(amount);
+                        senderTransaction.setTimestamp(timestamp);
+                        senderTransaction.setBankAccount(sender);
+                        senderTransaction.setVisavis(receiver);
+
+                        var receiverTransaction = new TransferTransaction();
+                        receiverTransaction.setFlow(MoneyFlow.IN);
+                        receiverTransaction.setAmount(amount);
+                        receiverTransaction.setTimestamp(timestamp);
+                        receiverTransaction.setBankAccount(receiver);
+                        receiverTransaction.setVisavis(sender);
+
+                        return bankAccountRepository.updateBalance(sender)
+                                .then(bankAccountRepository.updateBalance(receiver))
+                                .then(bankTransactionRepository.insertAll(List.of(senderTransaction, receiverTransaction)))
+                                .thenReturn(senderTransaction);
+                    })
+                    .as(transactionalOperator::transactional);
+        }));
+    }
+
+    @Override
+    public Mono<WithdrawTransaction> withdraw(String senderAccountNumber, BigDecimal amount) {
+        return retrying("withdraw", Mono.defer(() -> {
+            var amountMinorUnits = positiveMinorUnits(amount);
+            var timestamp = TimeUtil.currentTimeMillis();
+
+            return findForUpdate(senderAccountNumber)
+                    .flatMap(sender -> {
+                        debit(sender, amountMinorUnits);
+
+                        var senderTransaction = new WithdrawTransaction();
+                        senderTransaction.setFlow(MoneyFlow.OUT);
+                        senderTransaction.setAmount(amount);
+                        senderTransaction.setTimestamp(timestamp);
+                        senderTransaction.setBankAccount(sender);
+
+                        return bankAccountRepository.updateBalance(sender)
+                                .then(bankTransactionRepository.insertAll(List.of(senderTransaction)))
+                                .thenReturn(senderTransaction);
+                    })
+                    .as(transactionalOperator::transactional);
+        }));
+    }
+
+    @Override
+    public Mono<DepositTransaction> deposit(String receiverAccountNumber, BigDecimal amount) {
+        return retrying("deposit", Mono.defer(() -> {
+            var amountMinorUnits = positiveMinorUnits(amount);
+            var timestamp = TimeUtil.currentTimeMillis();
+
+            return findForUpdate(receiverAccountNumber)
+                    .flatMap(receiver -> {
+                        credit(receiver, amountMinorUnits);
+
+                        var receiverTransaction = new DepositTransaction();
+                        receiverTransaction.setFlow(MoneyFlow.IN);
+                        receiverTransaction.setAmount(amount);
+                        receiverTransaction.setTimestamp(timestamp);
+                        receiverTransaction.setBankAccount(receiver);
+
+                        return bankAccountRepository.updateBalance(receiver)
+                                .then(bankTransactionRepository.insertAll(List.of(receiverTransaction)))
+                                .thenReturn(receiverTransaction);
+                    })
+                    .as(transactionalOperator::transactional);
+        }));
+    }
+
+    @Override
+    public Mono<BankAccount> getByAccountNumber(String accountNumber) {
+        return bankAccountRepository.findWithEffectiveBalance(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new BankApplicationNotFoundException()));
+    }
+
+    private Mono<BankAccount> findForUpdate(String accountNumber) {
+        return bankAccountRepository.lockAllInOrderById(List.of(accountNumber))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new BankApplicationNotFoundException()));
+    }
+
+    private static long positiveMinorUnits(BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        return amountMinorUnits;
+    }
+
+    private static void debit(BankAccount account, long amountMinorUnits) {
+        requireUnstriped(account);
+        if (!account.covers(amountMinorUnits)) {
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + account.getAccountNumber());
+        }
+        account.debit(amountMinorUnits);
+    }
+
+    private static void credit(BankAccount account, long amountMinorUnits) {
+        requireUnstriped(account);
+        account.credit(amountMinorUnits);
+    }
+
+    // bucket balances are only maintained by StripedBalanceService on the JPA path
+    private static void requireUnstriped(BankAccount account) {
+        if (account.isStriped()) {
+            throw new BankApplicationBadRequestException("striped accounts are not supported by the reactive stack: " + account.getAccountNumber());
+        }
+    }
+
+    private static BankAccount findLocked(List<BankAccount> accounts, String accountNumber) {
+        return accounts.stream()
+                .filter(account -> account.getAccountNumber().equals(accountNumber))
+                .findFirst()
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+    }
+
+    // every attempt resubscribes the deferred call and so runs in a fresh transaction
+    private <T> Mono<T> retrying(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+            return call.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                var failure = signal.failure();
+                if (!isConcurrencyFailure(failure)) {
+                    return Mono.error(failure);
+                }
+
+                long attempt = signal.totalRetries() + 1;
+                long backoffMillis = backoffMillis(attempt);
+                boolean pastDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline;
+                if (attempt >= maxAttempts || pastDeadline) {
+                    meterRegistry.counter("bank.transaction.retry.exhausted", "operation", operation, "exception", failure.getClass().getSimpleName()).increment();
+                    log.warn("[retry] {} gave up after {} attempts: {}", operation, attempt, failure.getMessage());
+                    return Mono.error(new BankApplicationConcurrencyException("concurrent update conflict, giving up after " + attempt + " attempts", failure));
+                }
+
+                meterRegistry.counter("bank.transaction.retries", "operation", operation, "exception", failure.getClass().getSimpleName()).increment();
+                return Mono.delay(Duration.ofMillis(backoffMillis));
+            })));
+        });
+    }
+
+    // full jitter, as in ConcurrencyRetryAspect
+    private long backoffMillis(long attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isConcurrencyFailure(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException
+                    || cause instanceof R2dbcException r2dbcException && r2dbcException.getSqlState() != null && CONCURRENCY_FAILURES.contains(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
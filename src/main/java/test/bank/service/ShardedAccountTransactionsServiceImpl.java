@@ -0,0 +1,382 @@
+package test.bank.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
+import test.bank.util.TimeUtil;
+import test.bank.util.UuidUtil;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Accounts are hash partitioned over single threaded executors that own their balances in memory, so checks
+// and updates need no locks. A transfer between partitions runs in fixed steps: the receiver partition confirms
+// the account exists, the sender partition debits, the receiver partition credits. Once the receiver is known
+// to exist the credit can not fail, so no step ever has to be undone. Ledger rows and balance deltas reach
+// Postgres asynchronously through AsyncLedgerWriter, reads through AccountManagementService lag behind by
+// that backlog. With the journal enabled an operation is acknowledged once its record is on local disk, the
+// partition thread moves on while the caller waits for the fsync. Once app.bank.sharded.max-backlog ledger rows
+// wait for the database, new operations are rejected with 503; each partition caches a bounded number of
+// accounts and only evicts those whose rows are all written. One instance must own all accounts and nothing
+// else may change balances while this mode runs.
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.bank.balance-mode", havingValue = "sharded")
+public class ShardedAccountTransactionsServiceImpl implements AccountTransactionsService {
+    private final BankAccountRepository bankAccountRepository;
+    private final BankTransactionRepository bankTransactionRepository;
+    private final StripedBalanceService stripedBalanceService;
+    private final AsyncLedgerWriter ledgerWriter;
+    private final Partition[] partitions;
+    private final int maxCachedAccountsPerPartition;
+
+    public ShardedAccountTransactionsServiceImpl(BankAccountRepository bankAccountRepository,
+                                                 BankTransactionRepository bankTransactionRepository,
+                                                 StripedBalanceService stripedBalanceService,
+                                                 AsyncLedgerWriter ledgerWriter,
+                                                 // 0 uses one partition per core
+                                                 @Value("${app.bank.sharded.partitions:0}") int partitions,
+                                                 @Value("${app.bank.sharded.max-cached-accounts:1000000}") int maxCachedAccounts) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankTransactionRepository = bankTransactionRepository;
+        this.stripedBalanceService = stripedBalanceService;
+        this.ledgerWriter = ledgerWriter;
+        int count = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.maxCachedAccountsPerPartition = Math.max(1, maxCachedAccounts / count);
+        this.partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            this.partitions[i] = new Partition(i);
+        }
+    }
+
+    @Override
+    public TransferTransaction transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        if (senderAccountNumber.equals(receiverAccountNumber)) {
+            throw new BankApplicationException("senderAccountNumber and receiverAccountNumber can not be identical");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+        var senderPartition = partitionOf(senderAccountNumber);
+        var receiverPartition = partitionOf(receiverAccountNumber);
+
+        if (senderPartition == receiverPartition) {
+            return acknowledge(call(senderPartition, () -> {
+                var receiver = senderPartition.load(receiverAccountNumber);
+                var sender = senderPartition.load(senderAccountNumber);
+                requireFunds(sender, amountMinorUnits);
+                var accepted = submitTransfer(sender.account, receiver.account, amount, timestamp);
+                sender.balance -= amountMinorUnits;
+                receiver.balance = Math.addExact(receiver.balance, amountMinorUnits);
+                sender.submitted();
+                receiver.submitted();
+                return accepted;
+            }));
+        }
+
+        var receiverAccount = call(receiverPartition, () -> receiverPartition.load(receiverAccountNumber).account);
+        var sender = call(senderPartition, () -> {
+            var loaded = senderPartition.load(senderAccountNumber);
+            requireFunds(loaded, amountMinorUnits);
+            loaded.balance -= amountMinorUnits;
+            // the debit is not in the backlog yet, the account must stay cached until it is
+            loaded.transfersInFlight.incrementAndGet();
+            return loaded;
+        });
+        Accepted<TransferTransaction> accepted;
+        try {
+            // both legs are journaled together once the money arrives. A crash before this point only loses
+            // a debit that existed in memory and was never acknowledged
+            accepted = call(receiverPartition, () -> {
+                var receiver = receiverPartition.load(receiverAccountNumber);
+                var submitted = submitTransfer(sender.account, receiverAccount, amount, timestamp);
+                receiver.balance = Math.addExact(receiver.balance, amountMinorUnits);
+                receiver.submitted();
+                sender.submitted();
+                return submitted;
+            });
+        } catch (RuntimeException e) {
+            // the ledger writer refused the record; refunded from this thread, a partition never waits on another
+            call(senderPartition, () -> {
+                sender.balance = Math.addExact(sender.balance, amountMinorUnits);
+                return null;
+            });
+            throw e;
+        } finally {
+            sender.transfersInFlight.decrementAndGet();
+        }
+        return acknowledge(accepted);
+    }
+
+    @Override
+    public List<TransferBatchResult> transferBatch(List<TransferOrder> orders) {
+        var results = new ArrayList<TransferBatchResult>(orders.size());
+        for (var order : orders) {
+            try {
+                results.add(TransferBatchResult.success(
+                        transfer(order.getSenderAccountNumber(), order.getReceiverAccountNumber(), order.getAmount())));
+            } catch (BankApplicationException e) {
+                results.add(TransferBatchResult.failure(e));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public WithdrawTransaction withdraw(String senderAccountNumber, BigDecimal amount) {
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationException("amount should be positive");
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+        var partition = partitionOf(senderAccountNumber);
+
+        return acknowledge(call(partition, () -> {
+            var sender = partition.load(senderAccountNumber);
+            requireFunds(sender, amountMinorUnits);
+
+            var senderTransaction = new WithdrawTransaction(UuidUtil.timeOrderedUuid(), amount, timestamp, sender.account, MoneyFlow.OUT);
+            long position = ledgerWriter.submit(List.of(new LedgerEntry(senderTransaction.getId(), LedgerEntry.WITHDRAW,
+                    sender.account.getId(), null, amount, MoneyFlow.OUT, timestamp)));
+            // memory changes only after the journal took the record
+            sender.balance -= amountMinorUnits;
+            sender.submitted();
+            return new Accepted<>(senderTransaction, position);
+        }));
+    }
+
+    @Override
+    public DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount) {
+        return depositAll(receiverAccountNumber, List.of(amount)).get(0);
+    }
+
+    @Override
+    public List<DepositTransaction> depositAll(String receiverAccountNumber, List<BigDecimal> amounts) {
+        if (amounts.isEmpty()) {
+            throw new BankApplicationException("amount should be positive");
+        }
+        long total = 0;
+        for (var amount : amounts) {
+            var amountMinorUnits = Money.toMinorUnits(amount);
+            if (amountMinorUnits <= 0) {
+                throw new BankApplicationException("amount should be positive");
+            }
+            total = Math.addExact(total, amountMinorUnits);
+        }
+        long depositedMinorUnits = total;
+
+        var timestamp = TimeUtil.currentTimeMillis();
+        var partition = partitionOf(receiverAccountNumber);
+
+        // the opening deposit of AccountManagementService runs in the transaction that creates the account,
+        // a partition thread can not see that row yet
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !partition.accounts.containsKey(receiverAccountNumber)) {
+            return depositInCallerTransaction(receiverAccountNumber, amounts, timestamp);
+        }
+
+        return acknowledge(call(partition, () -> {
+            var receiver = partition.load(receiverAccountNumber);
+
+            var receiverTransactions = new ArrayList<DepositTransaction>(amounts.size());
+            var entries = new ArrayList<LedgerEntry>(amounts.size());
+            for (var amount : amounts) {
+                var receiverTransaction = new DepositTransaction(UuidUtil.timeOrderedUuid(), amount, timestamp, receiver.account, MoneyFlow.IN);
+                receiverTransactions.add(receiverTransaction);
+                entries.add(new LedgerEntry(receiverTransaction.getId(), LedgerEntry.DEPOSIT,
+                        receiver.account.getId(), null, amount, MoneyFlow.IN, timestamp));
+            }
+            long position = ledgerWriter.submit(entries);
+            receiver.balance = Math.addExact(receiver.balance, depositedMinorUnits);
+            receiver.submitted();
+            return new Accepted<>(receiverTransactions, position);
+        }));
+    }
+
+    public boolean awaitPersisted(Duration timeout) throws InterruptedException {
+        return ledgerWriter.awaitPersisted(timeout);
+    }
+
+    // drops every cached balance so accounts are read from the database again. Only safe while no operations run
+    public void evictAll() throws InterruptedException {
+        if (!ledgerWriter.awaitPersisted(Duration.ofSeconds(30))) {
+            throw new IllegalStateException("ledger backlog was not written, cached balances are still needed");
+        }
+        for (var partition : partitions) {
+            call(partition, () -> {
+                partition.accounts.clear();
+                return null;
+            });
+        }
+    }
+
+    private List<DepositTransaction> depositInCallerTransaction(String receiverAccountNumber, List<BigDecimal> amounts, long timestamp) {
+        var receiver = bankAccountRepository.getByAccountNumber(receiverAccountNumber)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + receiverAccountNumber));
+
+        var receiverTransactions = new ArrayList<DepositTransaction>(amounts.size());
+        for (var amount : amounts) {
+            receiverTransactions.add(new DepositTransaction(amount, timestamp, receiver, MoneyFlow.IN));
+            receiver.credit(Money.toMinorUnits(amount));
+        }
+
+        bankTransactionRepository.saveAll(receiverTransactions);
+        bankAccountRepository.save(receiver);
+
+        return receiverTransactions;
+    }
+
+    private Accepted<TransferTransaction> submitTransfer(BankAccount sender, BankAccount receiver, BigDecimal amount, long timestamp) {
+        var senderTransaction = new TransferTransaction(UuidUtil.timeOrderedUuid(), amount, timestamp, sender, MoneyFlow.OUT, receiver);
+        var receiverTransaction = new TransferTransaction(UuidUtil.timeOrderedUuid(), amount, timestamp, receiver, MoneyFlow.IN, sender);
+        long position = ledgerWriter.submit(List.of(
+                new LedgerEntry(senderTransaction.getId(), LedgerEntry.TRANSFER, sender.getId(), receiver.getId(), amount, MoneyFlow.OUT, timestamp),
+                new LedgerEntry(receiverTransaction.getId(), LedgerEntry.TRANSFER, receiver.getId(), sender.getId(), amount, MoneyFlow.IN, timestamp)));
+        return new Accepted<>(senderTransaction, position);
+    }
+
+    // waits on the caller thread, the partition keeps serving other accounts during the fsync
+    private <T> T acknowledge(Accepted<T> accepted) {
+        ledgerWriter.awaitDurable(accepted.position());
+        return accepted.result();
+    }
+
+    private static void requireFunds(ShardAccount account, long amountMinorUnits) {
+        if (account.balance < amountMinorUnits) {
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + account.account.getAccountNumber());
+        }
+    }
+
+    private Partition partitionOf(String accountNumber) {
+        return partitions[Math.floorMod(accountNumber.hashCode(), partitions.length)];
+    }
+
+    private static <T> T call(Partition partition, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, partition.executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (var partition : partitions) {
+            partition.executor.shutdown();
+        }
+        for (var partition : partitions) {
+            partition.executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private final class Partition {
+        private final ExecutorService executor;
+        // written by the partition thread only, concurrent so callers can check what is cached
+        private final Map<String, ShardAccount> accounts = new ConcurrentHashMap<>();
+        private boolean evictionScheduled;
+
+        private Partition(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "account-partition-" + index));
+        }
+
+        private ShardAccount load(String accountNumber) {
+            var account = accounts.get(accountNumber);
+            if (account != null) {
+                return account;
+            }
+            // a miss is not cached, the account may be created later
+            var loaded = bankAccountRepository.findByAccountNumber(accountNumber)
+                    .map(stripedBalanceService::withEffectiveBalance)
+                    .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+            if (accounts.size() >= maxCachedAccountsPerPartition && !evictionScheduled) {
+                // after the current task, which may still change the accounts it loaded
+                try {
+                    executor.execute(this::evict);
+                    evictionScheduled = true;
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                }
+            }
+            account = new ShardAccount(loaded, loaded.getBalanceMinorUnits());
+            accounts.put(accountNumber, account);
+            return account;
+        }
+
+        // drops a tenth of the cache at once so the scan is not repeated on every miss. An account with rows
+        // still in the backlog stays, a reload would read a balance without them
+        private void evict() {
+            evictionScheduled = false;
+            int target = maxCachedAccountsPerPartition - Math.max(1, maxCachedAccountsPerPartition / 10);
+            var iterator = accounts.values().iterator();
+            while (accounts.size() > target && iterator.hasNext()) {
+                if (iterator.next().isWritten()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private record Accepted<T>(T result, long position) {
+    }
+
+    // the entity only identifies the account in returned transactions, the balance lives next to it
+    private class ShardAccount {
+        private final BankAccount account;
+        private long balance;
+        // ledger rows submitted when this account last changed, its balance is in the database once they are written.
+        // The receiver partition updates it for the sender of a transfer, hence atomic
+        private final AtomicLong submittedRows = new AtomicLong();
+        private final AtomicInteger transfersInFlight = new AtomicInteger();
+
+        private ShardAccount(BankAccount account, long balance) {
+            this.account = account;
+            this.balance = balance;
+        }
+
+        private void submitted() {
+            submittedRows.accumulateAndGet(ledgerWriter.submittedRows(), Math::max);
+        }
+
+        private boolean isWritten() {
+            return transfersInFlight.get() == 0 && ledgerWriter.isPersisted(submittedRows.get());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package test.bank.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.BankAccountBucket;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountBucketRepository;
+import test.bank.repository.BankAccountRepository;
+import test.bank.service.interfaces.StripedBalanceService;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+public class StripedBalanceServiceImpl implements StripedBalanceService {
+    private final BankAccountRepository bankAccountRepository;
+    private final BankAccountBucketRepository bankAccountBucketRepository;
+    private final EntityManager entityManager;
+
+    // only decides whether an account is read without the row lock, the stripes column of the loaded row is authoritative
+    private final Set<String> stripedAccountNumbers = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.bank.striping.max-stripes:64}")
+    private int maxStripes;
+    @Value("${app.bank.balance-mode:locking}")
+    private String balanceMode;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.bank.striping.refresh-ms:10000}")
+    public void refreshStripedAccounts() {
+        var current = bankAccountRepository.findStripedAccountNumbers();
+        stripedAccountNumbers.addAll(current);
+        stripedAccountNumbers.retainAll(Set.copyOf(current));
+    }
+
+    @Override
+    @Transactional
+    public BankAccount enableStriping(String accountNumber, int stripes) {
+        // the other balance modes update the main row only and would never see the buckets
+        if (!"locking".equals(balanceMode)) {
+            throw new BankApplicationBadRequestException("striping is only supported in the locking balance mode");
+        }
+        if (stripes < 2 || stripes > maxStripes) {
+            throw new BankApplicationBadRequestException("stripes should be between 2 and " + maxStripes);
+        }
+
+        var account = bankAccountRepository.getByAccountNumber(accountNumber)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+        if (stripes < account.getStripes()) {
+            throw new BankApplicationBadRequestException("number of stripes can not be reduced, account has " + account.getStripes());
+        }
+
+        for (int bucket = account.getStripes(); bucket < stripes; bucket++) {
+            bankAccountBucketRepository.save(new BankAccountBucket(account.getId(), bucket, BigDecimal.ZERO));
+        }
+        account.setStripes(stripes);
+        bankAccountRepository.save(account);
+
+        stripedAccountNumbers.add(accountNumber);
+        return account;
+    }
+
+    @Override
+    public boolean isStriped(String accountNumber) {
+        return stripedAccountNumbers.contains(accountNumber);
+    }
+
+    // striped accounts are read without locking the main row, anything else is locked as usual
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BankAccount findForUpdate(String accountNumber) {
+        var account = bankAccountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber));
+        if (!account.isStriped()) {
+            stripedAccountNumbers.remove(accountNumber);
+            entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return account;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void credit(BankAccount account, BigDecimal amount) {
+        bankAccountBucketRepository.credit(account.getId(), randomBucket(account), amount);
+    }
+
+    // nothing is written before insufficient funds are detected, so a batch can go on with its other transfers
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = BankApplicationNegativeBalanceException.class)
+    public void debit(BankAccount account, BigDecimal amount) {
+        if (bankAccountBucketRepository.debitIfSufficient(account.getId(), randomBucket(account), amount) == 1) {
+            return;
+        }
+
+        // the picked bucket is too small: take the main row and every bucket, in that order, and move all of it into the main row.
+        // Earlier transfers of a batch may have changed the row in memory, the refresh would drop them without the flush
+        entityManager.flush();
+        entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+        var total = account.getBalance();
+        for (var balance : bankAccountBucketRepository.lockBalances(account.getId())) {
+            total = total.add(balance);
+        }
+        if (total.compareTo(amount) < 0) {
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + account.getAccountNumber());
+        }
+        bankAccountBucketRepository.empty(account.getId());
+        account.setBalance(total.subtract(amount));
+    }
+
+    @Override
+    public BankAccount withEffectiveBalance(BankAccount account) {
+        if (!account.isStriped()) {
+            return account;
+        }
+        // the summed balance must never be flushed back into the main row
+        entityManager.detach(account);
+        account.setBalance(account.getBalance().add(bankAccountBucketRepository.sumBalance(account.getId())));
+        return account;
+    }
+
+    private static int randomBucket(BankAccount account) {
+        return ThreadLocalRandom.current().nextInt(account.getStripes());
+    }
+}
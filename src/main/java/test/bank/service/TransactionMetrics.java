@@ -0,0 +1,198 @@
+package test.bank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.exception.BankApplicationNotFoundException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Phase timers of the locking transaction path, so lock waits can be told apart from ledger writes, balance
+// updates and the commit round trip. Exposed as bank.transaction.phase{operation, phase} and
+// bank.transaction.rejected{operation, reason}; histograms are switched on in application.yaml.
+// The writes are timed per JDBC execution through PhaseTimingStatementInspector and PhaseTimingSessionListener,
+// wherever Hibernate runs them, usually in the flush at commit. The session is never flushed for the sake of it.
+@Component
+public class TransactionMetrics {
+    public static final String PHASE = "bank.transaction.phase";
+    public static final String REJECTED = "bank.transaction.rejected";
+
+    // transaction resource holding the Phases of a tracked transaction
+    private static final Object PHASES = new Object();
+    private static final int OTHER = 0;
+    private static final int LEDGER_INSERT = 1;
+    private static final int BALANCE_UPDATE = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final ContentionProfiler contentionProfiler;
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry meterRegistry, ContentionProfiler contentionProfiler) {
+        this.meterRegistry = meterRegistry;
+        this.contentionProfiler = contentionProfiler;
+    }
+
+    // row lock acquisition, i.e. the SELECT ... FOR UPDATE including the wait for other holders
+    public <T> T lock(String operation, String accountNumber, Supplier<T> lookup) {
+        return lock(operation, accountNumber, null, lookup);
+    }
+
+    // both accounts of a transfer are locked by one query, the wait is attributed to each of them
+    public <T> T lock(String operation, String accountNumber, String otherAccountNumber, Supplier<T> lookup) {
+        var operationMeters = meters(operation);
+        long start = System.nanoTime();
+        try {
+            return lookup.get();
+        } catch (BankApplicationNotFoundException e) {
+            operationMeters.notFound.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            if (isLockTimeout(e)) {
+                operationMeters.lockTimeouts.increment();
+            }
+            throw e;
+        } finally {
+            long waitNanos = System.nanoTime() - start;
+            operationMeters.lock.record(waitNanos, TimeUnit.NANOSECONDS);
+            contentionProfiler.record(accountNumber, waitNanos);
+            if (otherAccountNumber != null) {
+                contentionProfiler.record(otherAccountNumber, waitNanos);
+            }
+        }
+    }
+
+    // binds the write and commit timers of the operation to the surrounding transaction, recorded once it committed;
+    // no-op when called outside of one
+    public void begin(String operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(PHASES)) {
+            return;
+        }
+        var phases = new Phases(meters(operation));
+        TransactionSynchronizationManager.bindResource(PHASES, phases);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+            private long writeNanosBeforeCommit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+                writeNanosBeforeCommit = phases.ledgerInsertNanos + phases.balanceUpdateNanos;
+            }
+
+            @Override
+            public void afterCommit() {
+                long writeNanos = phases.ledgerInsertNanos + phases.balanceUpdateNanos;
+                // the flush at commit runs the writes, their time belongs to their own phases
+                long commitNanos = System.nanoTime() - commitStart - (writeNanos - writeNanosBeforeCommit);
+                phases.meters.ledgerInsert.record(phases.ledgerInsertNanos, TimeUnit.NANOSECONDS);
+                phases.meters.balanceUpdate.record(phases.balanceUpdateNanos, TimeUnit.NANOSECONDS);
+                phases.meters.commit.record(Math.max(commitNanos, 0), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PHASES);
+            }
+        });
+    }
+
+    // called by PhaseTimingStatementInspector for every statement Hibernate prepares
+    static void statementPrepared(String sql) {
+        var phases = (Phases) TransactionSynchronizationManager.getResource(PHASES);
+        if (phases != null) {
+            phases.statementPhase = phaseOf(sql);
+        }
+    }
+
+    // called by PhaseTimingSessionListener after every execution, a JDBC batch counts as one
+    static void statementExecuted(long nanos) {
+        var phases = (Phases) TransactionSynchronizationManager.getResource(PHASES);
+        if (phases == null) {
+            return;
+        }
+        if (phases.statementPhase == LEDGER_INSERT) {
+            phases.ledgerInsertNanos += nanos;
+        } else if (phases.statementPhase == BALANCE_UPDATE) {
+            phases.balanceUpdateNanos += nanos;
+        }
+    }
+
+    // Hibernate executes a pending batch before it prepares the next statement, so the last prepared one is executing.
+    // bank_account_bucket updates of striped accounts are balance updates as well
+    private static int phaseOf(String sql) {
+        if (sql.regionMatches(true, 0, "insert into bank_transaction", 0, 28)) {
+            return LEDGER_INSERT;
+        }
+        if (sql.regionMatches(true, 0, "update bank_account", 0, 19)) {
+            return BALANCE_UPDATE;
+        }
+        return OTHER;
+    }
+
+    public void insufficientFunds(String operation) {
+        meters(operation).insufficientFunds.increment();
+    }
+
+    public void notFound(String operation) {
+        meters(operation).notFound.increment();
+    }
+
+    private Meters meters(String operation) {
+        var existing = meters.get(operation);
+        return existing != null ? existing : meters.computeIfAbsent(operation, this::register);
+    }
+
+    private Meters register(String operation) {
+        return new Meters(
+                timer(operation, "lock"),
+                timer(operation, "ledger-insert"),
+                timer(operation, "balance-update"),
+                timer(operation, "commit"),
+                counter(operation, "lock-timeout"),
+                counter(operation, "insufficient-funds"),
+                counter(operation, "not-found"));
+    }
+
+    private Timer timer(String operation, String phase) {
+        return Timer.builder(PHASE).tag("operation", operation).tag("phase", phase).register(meterRegistry);
+    }
+
+    private Counter counter(String operation, String reason) {
+        return Counter.builder(REJECTED).tag("operation", operation).tag("reason", reason).register(meterRegistry);
+    }
+
+    private static boolean isLockTimeout(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockingFailureException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // only touched by the thread running the transaction
+    private static final class Phases {
+        private final Meters meters;
+        private int statementPhase = OTHER;
+        private long ledgerInsertNanos;
+        private long balanceUpdateNanos;
+
+        private Phases(Meters meters) {
+            this.meters = meters;
+        }
+    }
+
+    private record Meters(Timer lock, Timer ledgerInsert, Timer balanceUpdate, Timer commit,
+                          Counter lockTimeouts, Counter insufficientFunds, Counter notFound) {
+    }
+}
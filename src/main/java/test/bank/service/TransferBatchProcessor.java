@@ -0,0 +1,135 @@
+package test.bank.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.BankTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.StripedBalanceService;
+import test.bank.util.TimeUtil;
+
+import java.util.*;
+import java.util.function.Function;
+
+// applies a list of transfers inside the caller's transaction: every involved account is locked once,
+// in id order, and the ledger rows are written in one batched saveAll
+@Component
+@RequiredArgsConstructor
+public class TransferBatchProcessor {
+    private final BankTransactionRepository bankTransactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final StripedBalanceService stripedBalanceService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TransferBatchResult> apply(List<TransferOrder> orders) {
+        return apply(orders, bankAccountRepository::getAllByAccountNumberInOrderById);
+    }
+
+    // the loader decides how accounts are read, e.g. without row locks when version checks guard the update
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TransferBatchResult> apply(List<TransferOrder> orders, Function<Collection<String>, List<BankAccount>> accountLoader) {
+        var accountNumbers = new HashSet<String>();
+        for (var order : orders) {
+            accountNumbers.add(order.getSenderAccountNumber());
+            accountNumbers.add(order.getReceiverAccountNumber());
+        }
+
+        var accounts = new HashMap<String, BankAccount>();
+        for (var account : accountLoader.apply(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+
+        var timestamp = TimeUtil.currentTimeMillis();
+        var results = new ArrayList<TransferBatchResult>(orders.size());
+        var ledger = new ArrayList<BankTransaction>(orders.size() * 2);
+
+        for (var order : orders) {
+            try {
+                results.add(TransferBatchResult.success(apply(order, accounts, timestamp, ledger)));
+            } catch (BankApplicationException e) {
+                results.add(TransferBatchResult.failure(e));
+            }
+        }
+
+        bankTransactionRepository.saveAll(ledger);
+
+        return results;
+    }
+
+    private TransferTransaction apply(TransferOrder order, Map<String, BankAccount> accounts, long timestamp, List<BankTransaction> ledger) {
+        var amount = order.getAmount();
+        var amountMinorUnits = Money.toMinorUnits(amount);
+        if (amountMinorUnits <= 0) {
+            throw new BankApplicationBadRequestException("amount should be positive");
+        }
+        if (order.getSenderAccountNumber().equals(order.getReceiverAccountNumber())) {
+            throw new BankApplicationBadRequestException("receiver and sender account number can not be the same");
+        }
+
+        var sender = getAccount(accounts, order.getSenderAccountNumber());
+        var receiver = getAccount(accounts, order.getReceiverAccountNumber());
+
+        var senderTransaction = new TransferTransaction();
+        senderTransaction.setFlow(MoneyFlow.OUT);
+        senderTransaction.setAmount(amount);
+        senderTransaction.setTimestamp(timestamp);
+        senderTransaction.setBankAccount(sender);
+        senderTransaction.setVisavis(receiver);
+
+        var receiverTransaction = new TransferTransaction();
+        receiverTransaction.setFlow(MoneyFlow.IN);
+        receiverTransaction.setAmount(amount);
+        receiverTransaction.setTimestamp(timestamp);
+        receiverTransaction.setBankAccount(receiver);
+        receiverTransaction.setVisavis(sender);
+
+        // accounts are managed entities, the balance updates are flushed together at commit
+        debit(sender, amountMinorUnits);
+        credit(receiver, amountMinorUnits);
+
+        ledger.add(senderTransaction);
+        ledger.add(receiverTransaction);
+
+        return senderTransaction;
+    }
+
+    // striped accounts keep part of their balance in buckets, as in AccountTransactionsServiceImpl
+    private void debit(BankAccount account, long amountMinorUnits) {
+        if (account.isStriped()) {
+            stripedBalanceService.debit(account, Money.toBigDecimal(amountMinorUnits));
+            return;
+        }
+        if (!account.covers(amountMinorUnits)) {
+            throw new BankApplicationNegativeBalanceException("sender does not have enough money: " + account.getAccountNumber());
+        }
+        account.debit(amountMinorUnits);
+    }
+
+    private void credit(BankAccount account, long amountMinorUnits) {
+        if (account.isStriped()) {
+            stripedBalanceService.credit(account, Money.toBigDecimal(amountMinorUnits));
+            return;
+        }
+        account.credit(amountMinorUnits);
+    }
+
+    private static BankAccount getAccount(Map<String, BankAccount> accounts, String accountNumber) {
+        var account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new BankApplicationNotFoundException("bank account does not exists. Account number: " + accountNumber);
+        }
+        return account;
+    }
+}
@@ -1,14 +1,20 @@
 package test.bank.service.interfaces;
 
 import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.BankAccountPage;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AccountManagementService {
     BankAccount createBankAccount(BigDecimal initialBalance);
 
     List<BankAccount> findAll();
 
+    BankAccountPage findPage(String afterAccountNumber, int size);
+
+    void forEachAccount(Consumer<BankAccount> consumer);
+
     BankAccount getByAccountNumber(String accountNumber);
 }
@@ -0,0 +1,7 @@
+package test.bank.service.interfaces;
+
+import test.bank.domain.banking.transaction.StatementPage;
+
+public interface AccountStatementService {
+    StatementPage getStatement(String accountNumber, long from, long to, String cursor, int size);
+}
@@ -1,15 +1,22 @@
 package test.bank.service.interfaces;
 
 import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.TransferBatchResult;
+import test.bank.domain.banking.transaction.TransferOrder;
 import test.bank.domain.banking.transaction.TransferTransaction;
 import test.bank.domain.banking.transaction.WithdrawTransaction;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface AccountTransactionsService {
     TransferTransaction transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount);
 
+    List<TransferBatchResult> transferBatch(List<TransferOrder> orders);
+
     WithdrawTransaction withdraw(String senderAccountNumber, BigDecimal amount);
 
     DepositTransaction deposit(String receiverAccountNumber, BigDecimal amount);
+
+    List<DepositTransaction> depositAll(String receiverAccountNumber, List<BigDecimal> amounts);
 }
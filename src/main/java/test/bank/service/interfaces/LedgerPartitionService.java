@@ -0,0 +1,14 @@
+package test.bank.service.interfaces;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface LedgerPartitionService {
+    void maintainPartitions();
+
+    void createPartition(YearMonth month);
+
+    List<YearMonth> detachPartitionsBefore(YearMonth month);
+
+    List<YearMonth> findAttachedPartitions();
+}
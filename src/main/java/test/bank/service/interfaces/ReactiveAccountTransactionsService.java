@@ -0,0 +1,19 @@
+package test.bank.service.interfaces;
+
+import reactor.core.publisher.Mono;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.domain.banking.transaction.WithdrawTransaction;
+
+import java.math.BigDecimal;
+
+public interface ReactiveAccountTransactionsService {
+    Mono<TransferTransaction> transfer(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount);
+
+    Mono<WithdrawTransaction> withdraw(String senderAccountNumber, BigDecimal amount);
+
+    Mono<DepositTransaction> deposit(String receiverAccountNumber, BigDecimal amount);
+
+    Mono<BankAccount> getByAccountNumber(String accountNumber);
+}
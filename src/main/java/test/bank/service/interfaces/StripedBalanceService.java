@@ -0,0 +1,19 @@
+package test.bank.service.interfaces;
+
+import test.bank.domain.banking.BankAccount;
+
+import java.math.BigDecimal;
+
+public interface StripedBalanceService {
+    BankAccount enableStriping(String accountNumber, int stripes);
+
+    boolean isStriped(String accountNumber);
+
+    BankAccount findForUpdate(String accountNumber);
+
+    void credit(BankAccount account, BigDecimal amount);
+
+    void debit(BankAccount account, BigDecimal amount);
+
+    BankAccount withEffectiveBalance(BankAccount account);
+}
@@ -0,0 +1,42 @@
+package test.bank.util;
+
+public class LuhnUtil {
+    // digits are read from the right, so the check digit can be appended to the payload
+    public static int checkDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        while (payload > 0) {
+            int digit = (int) (payload % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+            payload /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String number) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int digit = number.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,121 @@
+package test.bank.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+// Weighted Space-Saving (Metwally et al.): keeps at most capacity keys. A new key evicts the one with the
+// smallest weight and inherits that weight as its error, so every reported weight overestimates the true one
+// by at most its error, and any key heavier than total / capacity is guaranteed to be kept.
+// Not thread safe; the entries live in a min-heap on weight so updates and evictions are O(log capacity).
+public class SpaceSavingSketch {
+    private final Entry[] heap;
+    private final HashMap<String, Entry> entries;
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity should be positive");
+        }
+        this.heap = new Entry[capacity];
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, long weight) {
+        var entry = entries.get(key);
+        if (entry == null && size < heap.length) {
+            entry = new Entry(key, size);
+            heap[size++] = entry;
+            entries.put(key, entry);
+            entry.weight = weight;
+            entry.hits = 1;
+            siftUp(entry.index);
+            return;
+        }
+        if (entry == null) {
+            // the lightest key is replaced in place; the new one inherits its weight and hits, the weight is its error bound
+            entry = heap[0];
+            entries.remove(entry.key);
+            entry.key = key;
+            entry.error = entry.weight;
+            entries.put(key, entry);
+        }
+        // weights only grow here, so the entry can only move away from the root
+        entry.weight += weight;
+        entry.hits++;
+        siftDown(entry.index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    public List<Counter> counters() {
+        var counters = new ArrayList<Counter>(size);
+        for (int i = 0; i < size; i++) {
+            var entry = heap[i];
+            counters.add(new Counter(entry.key, entry.weight, entry.hits, entry.error));
+        }
+        return counters;
+    }
+
+    private void siftUp(int index) {
+        var entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].weight <= entry.weight) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private void siftDown(int index) {
+        var entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].weight < heap[child].weight) {
+                child++;
+            }
+            if (heap[child].weight >= entry.weight) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    public record Counter(String key, long weight, long hits, long error) {
+    }
+
+    private static class Entry {
+        private String key;
+        private int index;
+        private long weight;
+        private long hits;
+        private long error;
+
+        private Entry(String key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+}
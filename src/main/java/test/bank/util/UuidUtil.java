@@ -0,0 +1,15 @@
+package test.bank.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class UuidUtil {
+    // version 7 layout: 48 bit unix millis, version, random bits. Ids generated this way are
+    // roughly time ordered, so primary key inserts land at the right edge of the index
+    public static UUID timeOrderedUuid() {
+        var random = ThreadLocalRandom.current();
+        long mostSigBits = (TimeUtil.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
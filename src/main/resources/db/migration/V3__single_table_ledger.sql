@@ -0,0 +1,26 @@
+ALTER TABLE bank_transaction
+    ADD COLUMN type       CHAR(1),
+    ADD COLUMN visavis_id UUID REFERENCES bank_account (id);
+
+UPDATE bank_transaction bt
+SET type = 'D'
+FROM deposit_transaction d
+WHERE d.id = bt.id;
+
+UPDATE bank_transaction bt
+SET type = 'W'
+FROM withdraw_transaction w
+WHERE w.id = bt.id;
+
+UPDATE bank_transaction bt
+SET type       = 'T',
+    visavis_id = t.visavis_id
+FROM transfer_transaction t
+WHERE t.id = bt.id;
+
+ALTER TABLE bank_transaction
+    ALTER COLUMN type SET NOT NULL;
+
+DROP TABLE deposit_transaction;
+DROP TABLE withdraw_transaction;
+DROP TABLE transfer_transaction;
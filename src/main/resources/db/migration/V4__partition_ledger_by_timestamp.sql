@@ -0,0 +1,46 @@
+ALTER TABLE bank_transaction
+    RENAME TO bank_transaction_unpartitioned;
+
+CREATE TABLE bank_transaction
+(
+    id              UUID    NOT NULL DEFAULT gen_random_uuid(),
+    amount          DECIMAL(20, 2),
+    timestamp       BIGINT  NOT NULL,
+    flow            varchar(255),
+    bank_account_id UUID REFERENCES bank_account (id),
+    type            CHAR(1) NOT NULL,
+    visavis_id      UUID REFERENCES bank_account (id),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- catches rows outside of the monthly partitions (very old history, clock skew)
+CREATE TABLE bank_transaction_default PARTITION OF bank_transaction DEFAULT;
+
+-- monthly partitions (UTC) from the oldest ledger row, but at most a year back, until three months ahead.
+-- LedgerPartitionServiceImpl keeps creating partitions ahead of time after this
+DO
+$$
+    DECLARE
+        oldest_month TIMESTAMP := date_trunc('month', to_timestamp(
+                coalesce((SELECT min(timestamp) FROM bank_transaction_unpartitioned),
+                         extract(EPOCH FROM now()) * 1000) / 1000.0) AT TIME ZONE 'UTC');
+        month_start  TIMESTAMP := greatest(oldest_month,
+                                           date_trunc('month', now() AT TIME ZONE 'UTC') - INTERVAL '12 months');
+        last_month   TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF bank_transaction FOR VALUES FROM (%s) TO (%s)',
+                               'bank_transaction_' || to_char(month_start, 'YYYY_MM'),
+                               (extract(EPOCH FROM month_start) * 1000)::BIGINT,
+                               (extract(EPOCH FROM month_start + INTERVAL '1 month') * 1000)::BIGINT);
+                month_start := month_start + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO bank_transaction (id, amount, timestamp, flow, bank_account_id, type, visavis_id)
+SELECT id, amount, coalesce(timestamp, 0), flow, bank_account_id, type, visavis_id
+FROM bank_transaction_unpartitioned;
+
+DROP TABLE bank_transaction_unpartitioned;
@@ -0,0 +1 @@
+CREATE INDEX bank_transaction_account_timestamp_id_idx ON bank_transaction (bank_account_id, timestamp, id);
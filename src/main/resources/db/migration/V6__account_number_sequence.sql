@@ -0,0 +1,2 @@
+-- every nextval reserves a block of 100 account number counters, the generator reads the block size from increment_by
+CREATE SEQUENCE account_number_seq START WITH 1 INCREMENT BY 100;
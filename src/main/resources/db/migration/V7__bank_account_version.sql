@@ -0,0 +1 @@
+ALTER TABLE bank_account ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
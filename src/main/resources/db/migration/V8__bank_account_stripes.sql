@@ -0,0 +1,10 @@
+-- number of sub-balance buckets of a hot account, 0 keeps the whole balance in bank_account
+ALTER TABLE bank_account ADD COLUMN stripes INT NOT NULL DEFAULT 0;
+
+CREATE TABLE bank_account_bucket
+(
+    bank_account_id UUID           NOT NULL REFERENCES bank_account (id) ON DELETE CASCADE,
+    bucket          INT            NOT NULL,
+    balance         DECIMAL(20, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bank_account_id, bucket)
+);
@@ -0,0 +1,107 @@
+package test.bank.integration.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountTransactionsService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// counts the JDBC statements Hibernate prepares per transfer with and without insert batching
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class LedgerStatementCountTest {
+    private static final Logger log = LoggerFactory.getLogger(LedgerStatementCountTest.class);
+    private static final int TRANSFERS = 200;
+    private static final int UNBATCHED = 1;
+    private static final int BATCHED = 100;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private AccountTransactionsService accountTransactionsService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        bankAccountRepository.save(new BankAccount(BigDecimal.valueOf(1_000_000), BANK_ACCOUNT_NUMBER));
+        bankAccountRepository.save(new BankAccount(BigDecimal.valueOf(1_000_000), BANK_ACCOUNT_NUMBER_SECOND));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+    }
+
+    @Test
+    public void statementsPerTransfer() {
+        var unbatched = singleTransfers(UNBATCHED);
+        var batched = singleTransfers(BATCHED);
+        var batchEndpoint = batchTransfer(BATCHED);
+
+        log.info("[statementsPerTransfer] single/unbatched={} single/batched={} batch endpoint={}",
+                String.format("%.2f", unbatched), String.format("%.2f", batched), String.format("%.2f", batchEndpoint));
+
+        assertTrue(batched < unbatched);
+        assertTrue(batchEndpoint < 1);
+    }
+
+    private double singleTransfers(int jdbcBatchSize) {
+        var statistics = statistics();
+        for (int i = 0; i < TRANSFERS; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
+            });
+        }
+        return (double) statistics.getPrepareStatementCount() / TRANSFERS;
+    }
+
+    private double batchTransfer(int jdbcBatchSize) {
+        var orders = new ArrayList<TransferOrder>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            orders.add(new TransferOrder(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.ONE));
+        }
+        var statistics = statistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            accountTransactionsService.transferBatch(orders);
+        });
+        return (double) statistics.getPrepareStatementCount() / TRANSFERS;
+    }
+
+    private Statistics statistics() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.dto.response.bankAccount.BankAccountPageResponseDto;
 import test.bank.dto.response.bankAccount.BankAccountResponseDto;
 import test.bank.repository.BankAccountRepository;
 import test.bank.repository.BankTransactionRepository;
@@ -25,8 +27,10 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -69,7 +73,7 @@ public class AccountManagementControllerTest {
                 .andReturn().getResponse();
         var dtoResp = objectMapper.readValue(resp.getContentAsString(), BankAccountResponseDto.class);
 
-        assertEquals(initialBalanceExpected, dtoResp.getBalance());
+        assertEquals(Money.of(initialBalanceExpected), dtoResp.getBalance());
         assertEquals(BANK_ACCOUNT_NUMBER, dtoResp.getAccountNumber());
         assertNotEquals(null, dtoResp.getId());
     }
@@ -92,6 +96,62 @@ public class AccountManagementControllerTest {
         assertArrayEquals(expectedArray, listResp.toArray());
     }
 
+    @Test
+    void findPageWalksAllAccounts() throws Exception {
+        var first = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER));
+        var second = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER_SECOND));
+
+        var resp = mockMvc.perform(get("/api/management/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        var page = objectMapper.readValue(resp.getContentAsString(), BankAccountPageResponseDto.class);
+        assertEquals(List.of(BankAccountResponseDto.of(first)), page.getAccounts());
+        assertEquals(BANK_ACCOUNT_NUMBER, page.getNextCursor());
+
+        resp = mockMvc.perform(get("/api/management/page").param("size", "1").param("after", page.getNextCursor()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        page = objectMapper.readValue(resp.getContentAsString(), BankAccountPageResponseDto.class);
+        assertEquals(List.of(BankAccountResponseDto.of(second)), page.getAccounts());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPageInvalidSize() throws Exception {
+        mockMvc.perform(get("/api/management/page").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllSuccess() throws Exception {
+        var first = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER));
+        var second = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER_SECOND));
+
+        var asyncResult = mockMvc.perform(get("/api/management/all/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var resp = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        var lines = resp.getContentAsString().lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals(BankAccountResponseDto.of(first), objectMapper.readValue(lines.get(0), BankAccountResponseDto.class));
+        assertEquals(BankAccountResponseDto.of(second), objectMapper.readValue(lines.get(1), BankAccountResponseDto.class));
+    }
+
+    @Test
+    void streamAllEmpty() throws Exception {
+        var asyncResult = mockMvc.perform(get("/api/management/all/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var resp = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals("", resp.getContentAsString());
+    }
+
     @Test
     void getByAccountNumberSuccess() throws Exception {
         var firstBa = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER));
@@ -1,6 +1,7 @@
 package test.bank.integration.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +12,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
 import test.bank.domain.banking.transaction.DepositTransaction;
 import test.bank.domain.banking.transaction.MoneyFlow;
 import test.bank.dto.request.transaction.TransactionRequestDto;
 import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.transaction.StatementPageResponseDto;
 import test.bank.dto.response.transaction.TransactionResponseDto;
 import test.bank.dto.response.transaction.TransferTransactionResponseDto;
 import test.bank.repository.BankAccountRepository;
@@ -27,8 +30,12 @@ import test.bank.util.TimeUtil;
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mockStatic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -51,6 +58,7 @@ public class AccountTransactionControllerTest {
     private BankAccountRepository bankAccountRepository;
     @Autowired
     private ObjectMapper objectMapper;
+    private BankAccount bankAccount;
 
     @AfterEach
     public void cleanUp() {
@@ -60,8 +68,8 @@ public class AccountTransactionControllerTest {
 
     @BeforeEach
     public void setUp() {
-        var bankAccount1 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
-        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount1, MoneyFlow.IN));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount, MoneyFlow.IN));
 
         var bankAccount2 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
         depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount2, MoneyFlow.IN));
@@ -87,6 +95,35 @@ public class AccountTransactionControllerTest {
         }
     }
 
+    @Test
+    void transferCbor() throws Exception {
+        var cborMapper = new CBORMapper();
+        var dto = new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
+
+        var resp = mockMvc.perform(post("/api/transaction/transfer")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(dto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse();
+        var dtoResp = cborMapper.readValue(resp.getContentAsByteArray(), TransferTransactionResponseDto.class);
+
+        assertEquals(Money.of(BigDecimal.ONE), dtoResp.getAmount());
+        assertEquals(BANK_ACCOUNT_NUMBER_SECOND, dtoResp.getVisavisAccountNumber());
+    }
+
+    @Test
+    void jsonStaysDefault() throws Exception {
+        var dto = new TransactionRequestDto(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        mockMvc.perform(post("/api/transaction/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void withdrawSuccess() throws Exception {
         try (MockedStatic mocked = mockStatic(TimeUtil.class)) {
@@ -131,4 +168,37 @@ public class AccountTransactionControllerTest {
 
     }
 
+    @Test
+    void statementCursorRoundTrip() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.ONE, timestamp + 1_000, bankAccount, MoneyFlow.IN));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.ONE, timestamp + 2_000, bankAccount, MoneyFlow.IN));
+
+        var first = statement(BANK_ACCOUNT_NUMBER, null);
+        assertEquals(2, first.getEntries().size());
+        assertNotNull(first.getNextCursor());
+
+        var second = statement(BANK_ACCOUNT_NUMBER, first.getNextCursor());
+        assertEquals(1, second.getEntries().size());
+        assertNull(second.getNextCursor());
+        assertEquals(Money.of(BigDecimal.TEN), second.getEntries().get(0).getAmount());
+    }
+
+    @Test
+    void statementBadCursor() throws Exception {
+        mockMvc.perform(get("/api/transaction/statement/" + BANK_ACCOUNT_NUMBER)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private StatementPageResponseDto statement(String accountNumber, String cursor) throws Exception {
+        var request = get("/api/transaction/statement/" + accountNumber).param("size", "2");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        var resp = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        return objectMapper.readValue(resp.getContentAsString(), StatementPageResponseDto.class);
+    }
 }
@@ -0,0 +1,150 @@
+package test.bank.integration.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.publisher.Flux;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+public class ReactiveAccountTransactionControllerTest {
+    private static final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private static final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+
+    // one database for the JDBC and the R2DBC pool, jdbc:tc urls can not be shared with R2DBC
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":" + POSTGRES.getFirstMappedPort() + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+
+    @BeforeEach
+    public void setUp() {
+        bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAllInBatch();
+        bankAccountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void transferSuccess() {
+        var response = webTestClient.post().uri("/api/transaction/transfer")
+                .bodyValue(new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, new BigDecimal("2.50")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransferTransactionResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(BANK_ACCOUNT_NUMBER, response.getBankAccountNumber());
+        assertEquals(BANK_ACCOUNT_NUMBER_SECOND, response.getVisavisAccountNumber());
+        assertEquals(MoneyFlow.OUT, response.getFlow());
+        assertEquals(Money.of(new BigDecimal("7.50")), balance(BANK_ACCOUNT_NUMBER));
+        assertEquals(Money.of(new BigDecimal("12.50")), balance(BANK_ACCOUNT_NUMBER_SECOND));
+        assertEquals(2, bankTransactionRepository.count());
+    }
+
+    @Test
+    void withdrawWithoutFundsLeavesBalance() {
+        webTestClient.post().uri("/api/transaction/withdraw")
+                .bodyValue(new TransactionRequestDto(BANK_ACCOUNT_NUMBER, new BigDecimal("10.01")))
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        assertEquals(Money.of(BigDecimal.TEN), balance(BANK_ACCOUNT_NUMBER));
+        assertEquals(0, bankTransactionRepository.count());
+    }
+
+    @Test
+    void unknownAccountIsNotFound() {
+        webTestClient.post().uri("/api/transaction/deposit")
+                .bodyValue(new TransactionRequestDto("0001110001110003", BigDecimal.ONE))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void validationError() {
+        webTestClient.post().uri("/api/transaction/deposit")
+                .bodyValue(new TransactionRequestDto("000111000111000A", BigDecimal.ONE))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void concurrentOppositeTransfersKeepTotals() {
+        // WebTestClient blocks on exchange, the requests have to be in flight together to contend for the rows
+        var client = WebClient.create("http://localhost:" + port);
+        var statuses = Flux.range(0, 200)
+                .flatMap(i -> {
+                    var forward = i % 2 == 0;
+                    var dto = new TransferTransactionRequestDto(forward ? BANK_ACCOUNT_NUMBER : BANK_ACCOUNT_NUMBER_SECOND,
+                            forward ? BANK_ACCOUNT_NUMBER_SECOND : BANK_ACCOUNT_NUMBER, new BigDecimal("0.01"));
+                    return client.post().uri("/api/transaction/transfer").bodyValue(dto).retrieve().toBodilessEntity();
+                }, 64)
+                .map(ResponseEntity::getStatusCode)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+
+        assertEquals(200, statuses.stream().filter(HttpStatusCode::is2xxSuccessful).count());
+        assertEquals(Money.of(BigDecimal.TEN), balance(BANK_ACCOUNT_NUMBER));
+        assertEquals(Money.of(BigDecimal.TEN), balance(BANK_ACCOUNT_NUMBER_SECOND));
+        assertEquals(400, bankTransactionRepository.count());
+    }
+
+    private Money balance(String accountNumber) {
+        return webTestClient.get().uri("/api/management/" + accountNumber)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BankAccountResponseDto.class)
+                .returnResult().getResponseBody()
+                .getBalance();
+    }
+}
@@ -0,0 +1,72 @@
+package test.bank.integration.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+public class LedgerMigrationTest {
+    private static final String SCHEMA = "ledger_migration_test";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void joinedLedgerRowsAreMovedToSingleTable() {
+        migrate("2");
+
+        var account = UUID.randomUUID();
+        var visavis = UUID.randomUUID();
+        var deposit = UUID.randomUUID();
+        var withdraw = UUID.randomUUID();
+        var transfer = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".bank_account (id, balance, account_number) VALUES (?, 10, '0001110001110001'), (?, 0, '0001110001110002')", account, visavis);
+        insertLedgerRow(deposit, account, "IN", "deposit_transaction");
+        insertLedgerRow(withdraw, account, "OUT", "withdraw_transaction");
+        insertLedgerRow(transfer, account, "OUT", "transfer_transaction");
+        jdbcTemplate.update("UPDATE " + SCHEMA + ".transfer_transaction SET visavis_id = ? WHERE id = ?", visavis, transfer);
+
+        migrate("3");
+
+        assertEquals("D", type(deposit));
+        assertEquals("W", type(withdraw));
+        assertEquals("T", type(transfer));
+        assertNull(jdbcTemplate.queryForObject("SELECT visavis_id FROM " + SCHEMA + ".bank_transaction WHERE id = ?", UUID.class, deposit));
+        assertEquals(visavis, jdbcTemplate.queryForObject("SELECT visavis_id FROM " + SCHEMA + ".bank_transaction WHERE id = ?", UUID.class, transfer));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.tables WHERE table_schema = ? AND table_name IN ('deposit_transaction', 'withdraw_transaction', 'transfer_transaction')", Integer.class, SCHEMA));
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private void insertLedgerRow(UUID id, UUID account, String flow, String subtypeTable) {
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".bank_transaction (id, amount, timestamp, flow, bank_account_id) VALUES (?, 1, 100, ?, ?)", id, flow, account);
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + "." + subtypeTable + " (id) VALUES (?)", id);
+    }
+
+    private String type(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT type FROM " + SCHEMA + ".bank_transaction WHERE id = ?", String.class, id);
+    }
+}
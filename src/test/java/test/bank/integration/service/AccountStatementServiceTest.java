@@ -0,0 +1,116 @@
+package test.bank.integration.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.StatementEntry;
+import test.bank.domain.banking.transaction.TransferTransaction;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.interfaces.AccountStatementService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AccountStatementServiceTest {
+    private static final long BASE_TIMESTAMP = 1_700_000_000_000L;
+    private static final int DEPOSITS = 25;
+
+    @Autowired
+    private AccountStatementService accountStatementService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+
+    @BeforeEach
+    public void setUp() {
+        var account = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        var account2 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
+        for (int i = 0; i < DEPOSITS; i++) {
+            bankTransactionRepository.save(new DepositTransaction(BigDecimal.ONE, BASE_TIMESTAMP + i, account, MoneyFlow.IN));
+        }
+        // two entries with the same timestamp are ordered by id; fixed ids, since UUID.compareTo is signed and Postgres
+        // compares uuids as unsigned bytes
+        bankTransactionRepository.save(new TransferTransaction(UUID.fromString("00000000-0000-0000-0000-000000000002"), BigDecimal.ONE, BASE_TIMESTAMP + DEPOSITS, account, MoneyFlow.OUT, account2));
+        bankTransactionRepository.save(new DepositTransaction(UUID.fromString("00000000-0000-0000-0000-000000000001"), BigDecimal.ONE, BASE_TIMESTAMP + DEPOSITS, account, MoneyFlow.IN));
+        bankTransactionRepository.save(new DepositTransaction(BigDecimal.ONE, BASE_TIMESTAMP, account2, MoneyFlow.IN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+    }
+
+    @Test
+    void pagesCoverWholeHistoryInOrder() {
+        var entries = new ArrayList<StatementEntry>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var page = accountStatementService.getStatement(BANK_ACCOUNT_NUMBER, 0, Long.MAX_VALUE, cursor, 10);
+            entries.addAll(page.getEntries());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(DEPOSITS + 2, entries.size());
+        assertEquals(DEPOSITS + 2, new HashSet<>(entries.stream().map(StatementEntry::getId).toList()).size());
+        for (int i = 1; i < entries.size(); i++) {
+            var previous = entries.get(i - 1);
+            var current = entries.get(i);
+            assertTrue(previous.getTimestamp() > current.getTimestamp()
+                    || (previous.getTimestamp().equals(current.getTimestamp()) && previous.getId().compareTo(current.getId()) > 0));
+        }
+
+        var transfer = entries.stream().filter(e -> "T".equals(e.getType())).findFirst().orElseThrow();
+        assertEquals(BANK_ACCOUNT_NUMBER_SECOND, transfer.getVisavisAccountNumber());
+        assertEquals(MoneyFlow.OUT, transfer.getFlow());
+    }
+
+    @Test
+    void timeRangeIsApplied() {
+        var page = accountStatementService.getStatement(BANK_ACCOUNT_NUMBER, BASE_TIMESTAMP + 5, BASE_TIMESTAMP + 10, null, 50);
+
+        assertEquals(5, page.getEntries().size());
+        assertNull(page.getNextCursor());
+        assertEquals(BASE_TIMESTAMP + 9, page.getEntries().get(0).getTimestamp());
+        assertEquals(BASE_TIMESTAMP + 5, page.getEntries().get(4).getTimestamp());
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        var page = accountStatementService.getStatement(BANK_ACCOUNT_NUMBER, BASE_TIMESTAMP, BASE_TIMESTAMP + 10, null, 10);
+
+        assertEquals(10, page.getEntries().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void malformedCursor() {
+        assertThrows(BankApplicationBadRequestException.class,
+                () -> accountStatementService.getStatement(BANK_ACCOUNT_NUMBER, 0, Long.MAX_VALUE, "not-a-cursor", 10));
+    }
+
+    @Test
+    void accountNotFound() {
+        assertThrows(BankApplicationNotFoundException.class,
+                () -> accountStatementService.getStatement("0001110001110003", 0, Long.MAX_VALUE, null, 10));
+    }
+}
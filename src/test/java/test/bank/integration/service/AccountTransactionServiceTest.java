@@ -1,5 +1,6 @@
 package test.bank.integration.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,15 +16,20 @@ import org.springframework.transaction.support.TransactionTemplate;
 import test.bank.domain.banking.BankAccount;
 import test.bank.domain.banking.transaction.DepositTransaction;
 import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.exception.BankApplicationBadRequestException;
 import test.bank.exception.BankApplicationException;
 import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
 import test.bank.repository.BankAccountRepository;
 import test.bank.repository.BankTransactionRepository;
 import test.bank.repository.DepositTransactionRepository;
 import test.bank.repository.TransferTransactionRepository;
+import test.bank.service.TransactionMetrics;
 import test.bank.service.interfaces.AccountTransactionsService;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +49,9 @@ public class AccountTransactionServiceTest {
     @Autowired
     private TransferTransactionRepository transferTransactionRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private PlatformTransactionManager transactionManager;
     private TransactionTemplate transactionTemplate;
@@ -291,6 +300,77 @@ public class AccountTransactionServiceTest {
         threadsDone.await();
     }
 
+    @Test
+    public void depositAllAppliesOneBalanceUpdate() {
+        var transactions = accountTransactionsService.depositAll(BANK_ACCOUNT_NUMBER, List.of(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE));
+
+        assertEquals(3, transactions.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(transactions.get(1).getAmount()));
+        assertEquals(0, BigDecimal.valueOf(22).compareTo(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().getBalance()));
+        assertEquals(4, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).size());
+    }
+
+    @Test
+    public void transferBatchAppliesItemsIndependently() {
+        var missingAccountNumber = "0001110001110003";
+        var results = accountTransactionsService.transferBatch(List.of(
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(4)),
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(7)),
+                new TransferOrder(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(14)),
+                new TransferOrder(BANK_ACCOUNT_NUMBER, missingAccountNumber, BigDecimal.ONE),
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER, BigDecimal.ONE)
+        ));
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertInstanceOf(BankApplicationNegativeBalanceException.class, results.get(1).getError());
+        assertTrue(results.get(2).isSuccess());
+        assertInstanceOf(BankApplicationNotFoundException.class, results.get(3).getError());
+        assertInstanceOf(BankApplicationBadRequestException.class, results.get(4).getError());
+
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER_SECOND).get().getBalance()));
+        assertEquals(4, transferTransactionRepository.count());
+    }
+
+    @Test
+    public void testOpposingTransfersDoNotDeadlock() throws InterruptedException {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(1000));
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(1000));
+
+        int numberOfThreads = 8;
+        int transfersPerThread = 100;
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var startGate = new CountDownLatch(1);
+        var threadsDone = new CountDownLatch(numberOfThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            var sender = i % 2 == 0 ? BANK_ACCOUNT_NUMBER : BANK_ACCOUNT_NUMBER_SECOND;
+            var receiver = i % 2 == 0 ? BANK_ACCOUNT_NUMBER_SECOND : BANK_ACCOUNT_NUMBER;
+            executor.submit(() -> {
+                try {
+                    startGate.await();
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        accountTransactionsService.transfer(sender, receiver, BigDecimal.ONE);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    threadsDone.countDown();
+                }
+            });
+        }
+        startGate.countDown();
+        assertTrue(threadsDone.await(120, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "transfers failed: " + failures);
+        var balance = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().getBalance();
+        var balance2 = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER_SECOND).get().getBalance();
+        assertEquals(0, BigDecimal.valueOf(2020).compareTo(balance.add(balance2)));
+        assertEquals(numberOfThreads * transfersPerThread * 2L, transferTransactionRepository.count());
+    }
+
     private void executeMainThreadForLockTest(Semaphore semaphore, Semaphore permitThreadStart) {
         transactionTemplate.execute(new TransactionCallback() {
             public Object doInTransaction(TransactionStatus status) {
@@ -327,4 +407,21 @@ public class AccountTransactionServiceTest {
     private interface ExecutableMethod {
         void execute();
     }
-}
\ No newline at end of file
+
+    @Test
+    void transferIsTimedPerPhase() {
+        var phases = List.of("lock", "balance-update", "ledger-insert", "commit");
+        var before = phases.stream().map(phase -> phaseCount("transfer", phase)).toList();
+
+        accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
+
+        for (int i = 0; i < phases.size(); i++) {
+            assertTrue(phaseCount("transfer", phases.get(i)) > before.get(i), phases.get(i));
+        }
+    }
+
+    private long phaseCount(String operation, String phase) {
+        var timer = meterRegistry.find(TransactionMetrics.PHASE).tag("operation", operation).tag("phase", phase).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
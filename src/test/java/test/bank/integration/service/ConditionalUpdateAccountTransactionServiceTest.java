@@ -0,0 +1,167 @@
+package test.bank.integration.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.repository.DepositTransactionRepository;
+import test.bank.repository.TransferTransactionRepository;
+import test.bank.service.ConditionalUpdateAccountTransactionsServiceImpl;
+import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.bank.balance-mode=conditional-update")
+public class ConditionalUpdateAccountTransactionServiceTest {
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountTransactionsService accountTransactionsService;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+    private final String BANK_ACCOUNT_NUMBER_MISSING = "0001110001110003";
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        var bankAccount1 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount1, MoneyFlow.IN));
+
+        var bankAccount2 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount2, MoneyFlow.IN));
+    }
+
+    @Test
+    public void conditionalUpdateModeSelected() {
+        assertInstanceOf(ConditionalUpdateAccountTransactionsServiceImpl.class, AopTestUtils.getTargetObject(accountTransactionsService));
+    }
+
+    @Test
+    public void stripingIsRejected() {
+        assertThrows(BankApplicationBadRequestException.class, () -> stripedBalanceService.enableStriping(BANK_ACCOUNT_NUMBER, 4));
+        assertFalse(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().isStriped());
+    }
+
+    @Test
+    public void depositSuccess() {
+        var transaction = accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(transaction.getBankAccount().getBalance()));
+        assertEquals(2, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).size());
+    }
+
+    @Test
+    public void withdrawSuccess() {
+        accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(1, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).stream()
+                .filter(t -> t.getFlow().equals(MoneyFlow.OUT)).count());
+    }
+
+    @Test
+    public void withdrawNegativeBalance() {
+        assertThrowsExactly(BankApplicationNegativeBalanceException.class,
+                () -> accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(11)));
+
+        assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(1, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).size());
+    }
+
+    @Test
+    public void withdrawNotFound() {
+        assertThrowsExactly(BankApplicationNotFoundException.class,
+                () -> accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER_MISSING, BigDecimal.ONE));
+    }
+
+    @Test
+    public void transferSuccess() {
+        accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(balanceOf(BANK_ACCOUNT_NUMBER_SECOND)));
+
+        var transfers = transferTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER_SECOND);
+        assertEquals(1, transfers.size());
+        assertEquals(MoneyFlow.OUT, transfers.get(0).getFlow());
+        assertEquals(BANK_ACCOUNT_NUMBER, transfers.get(0).getVisavis().getAccountNumber());
+    }
+
+    @Test
+    public void transferNegativeBalanceRollsBackCredit() {
+        // receiver sorts first, so its credit is applied before the sender guard rejects the debit
+        assertThrowsExactly(BankApplicationNegativeBalanceException.class,
+                () -> accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(11)));
+
+        assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.TEN.compareTo(balanceOf(BANK_ACCOUNT_NUMBER_SECOND)));
+        assertEquals(0, transferTransactionRepository.count());
+    }
+
+    @Test
+    public void opposingTransfersDoNotDeadlock() throws InterruptedException {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(1000));
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(1000));
+
+        int numberOfThreads = 8;
+        int transfersPerThread = 100;
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var threadsDone = new CountDownLatch(numberOfThreads);
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            var sender = i % 2 == 0 ? BANK_ACCOUNT_NUMBER : BANK_ACCOUNT_NUMBER_SECOND;
+            var receiver = i % 2 == 0 ? BANK_ACCOUNT_NUMBER_SECOND : BANK_ACCOUNT_NUMBER;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        accountTransactionsService.transfer(sender, receiver, BigDecimal.ONE);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    threadsDone.countDown();
+                }
+            });
+        }
+        assertTrue(threadsDone.await(120, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "transfers failed: " + failures);
+        assertEquals(0, BigDecimal.valueOf(2020).compareTo(balanceOf(BANK_ACCOUNT_NUMBER).add(balanceOf(BANK_ACCOUNT_NUMBER_SECOND))));
+    }
+
+    private BigDecimal balanceOf(String accountNumber) {
+        return bankAccountRepository.findByAccountNumber(accountNumber).get().getBalance();
+    }
+}
@@ -0,0 +1,112 @@
+package test.bank.integration.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.repository.DepositTransactionRepository;
+import test.bank.service.interfaces.LedgerPartitionService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class LedgerPartitionServiceTest {
+    @Autowired
+    private LedgerPartitionService ledgerPartitionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final YearMonth ARCHIVED_MONTH = YearMonth.of(2001, 1);
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bank_transaction_2001_01");
+    }
+
+    @Test
+    void partitionsAreCreatedAhead() {
+        ledgerPartitionService.maintainPartitions();
+
+        var currentMonth = YearMonth.now(ZoneOffset.UTC);
+        var partitions = ledgerPartitionService.findAttachedPartitions();
+        for (int i = 0; i <= 3; i++) {
+            assertTrue(partitions.contains(currentMonth.plusMonths(i)), "missing partition for " + currentMonth.plusMonths(i));
+        }
+    }
+
+    @Test
+    void ledgerRowsAreRoutedToMonthlyPartition() {
+        var account = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        var timestamp = System.currentTimeMillis();
+        var deposit = depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, timestamp, account, MoneyFlow.IN));
+
+        var partition = jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bank_transaction WHERE id = ?", String.class, deposit.getId());
+
+        var month = YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        assertEquals("bank_transaction_" + month.getYear() + "_" + String.format("%02d", month.getMonthValue()), partition);
+    }
+
+    @Test
+    void oldPartitionsAreDetached() {
+        ledgerPartitionService.createPartition(ARCHIVED_MONTH);
+        assertTrue(ledgerPartitionService.findAttachedPartitions().contains(ARCHIVED_MONTH));
+
+        var detached = ledgerPartitionService.detachPartitionsBefore(ARCHIVED_MONTH.plusMonths(1));
+
+        assertTrue(detached.contains(ARCHIVED_MONTH));
+        assertFalse(ledgerPartitionService.findAttachedPartitions().contains(ARCHIVED_MONTH));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_class WHERE relname = 'bank_transaction_2001_01'", Integer.class));
+    }
+
+    @Test
+    void busyLedgerKeepsPartitionAttached() throws Exception {
+        ledgerPartitionService.createPartition(ARCHIVED_MONTH);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        // an open transaction on the ledger, as a running transfer would hold
+        var holder = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE bank_transaction IN ACCESS SHARE MODE");
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertTrue(ledgerPartitionService.detachPartitionsBefore(ARCHIVED_MONTH.plusMonths(1)).isEmpty());
+            assertTrue(ledgerPartitionService.findAttachedPartitions().contains(ARCHIVED_MONTH));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
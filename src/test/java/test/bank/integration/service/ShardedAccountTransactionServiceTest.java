@@ -0,0 +1,205 @@
+package test.bank.integration.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.journal.TransactionJournal;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.repository.DepositTransactionRepository;
+import test.bank.service.AsyncLedgerWriter;
+import test.bank.service.ShardedAccountTransactionsServiceImpl;
+import test.bank.service.interfaces.AccountManagementService;
+import test.bank.service.interfaces.AccountTransactionsService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.bank.balance-mode=sharded",
+        "app.bank.sharded.partitions=4",
+        "app.bank.journal.directory=build/tmp/journal/${random.uuid}"
+})
+public class ShardedAccountTransactionServiceTest {
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountTransactionsService accountTransactionsService;
+    @Autowired
+    private AccountManagementService accountManagementService;
+    @Autowired
+    private ShardedAccountTransactionsServiceImpl shardedEngine;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    // with 4 partitions the first two accounts land on different partitions, the first and the third on the same one
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+    private final String BANK_ACCOUNT_NUMBER_SAME_PARTITION = "0001110001110005";
+    private final String BANK_ACCOUNT_NUMBER_MISSING = "0001110001110003";
+
+    @AfterEach
+    public void cleanUp() throws InterruptedException {
+        shardedEngine.evictAll();
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        for (var accountNumber : List.of(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER_SAME_PARTITION)) {
+            var bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, accountNumber));
+            depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount, MoneyFlow.IN));
+        }
+    }
+
+    @Test
+    public void transferAcrossPartitionsIsWrittenBehind() throws InterruptedException {
+        var transaction = accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
+
+        assertEquals(BANK_ACCOUNT_NUMBER, transaction.getBankAccount().getAccountNumber());
+        assertEquals(BANK_ACCOUNT_NUMBER_SECOND, transaction.getVisavis().getAccountNumber());
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(10)));
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(balanceOf(BANK_ACCOUNT_NUMBER_SECOND)));
+        assertEquals(2, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER_SECOND).size());
+    }
+
+    @Test
+    public void transferWithinPartition() throws InterruptedException {
+        accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SAME_PARTITION, BigDecimal.TEN);
+
+        assertThrowsExactly(BankApplicationNegativeBalanceException.class,
+                () -> accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SAME_PARTITION, BigDecimal.ONE));
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(10)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(balanceOf(BANK_ACCOUNT_NUMBER_SAME_PARTITION)));
+    }
+
+    @Test
+    public void transferToMissingAccountDebitsNothing() throws InterruptedException {
+        assertThrowsExactly(BankApplicationNotFoundException.class,
+                () -> accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_MISSING, BigDecimal.ONE));
+
+        accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.TEN);
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(10)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+    }
+
+    @Test
+    public void transferBatchReportsEachOrder() throws InterruptedException {
+        var results = accountTransactionsService.transferBatch(List.of(
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE),
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(100))));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(10)));
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+    }
+
+    @Test
+    public void createBankAccountDepositsInCallerTransaction() throws InterruptedException {
+        var created = accountManagementService.createBankAccount(BigDecimal.valueOf(50));
+
+        accountTransactionsService.withdraw(created.getAccountNumber(), BigDecimal.valueOf(50));
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(10)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(created.getAccountNumber())));
+        assertEquals(2, bankTransactionRepository.findAllByBankAccountAccountNumber(created.getAccountNumber()).size());
+    }
+
+    @Test
+    public void concurrentTransfersConserveMoney() throws InterruptedException {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(1000));
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(1000));
+
+        int numberOfThreads = 8;
+        int transfersPerThread = 200;
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var threadsDone = new CountDownLatch(numberOfThreads);
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            var sender = i % 2 == 0 ? BANK_ACCOUNT_NUMBER : BANK_ACCOUNT_NUMBER_SECOND;
+            var receiver = i % 2 == 0 ? BANK_ACCOUNT_NUMBER_SECOND : BANK_ACCOUNT_NUMBER;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        accountTransactionsService.transfer(sender, receiver, BigDecimal.ONE);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    threadsDone.countDown();
+                }
+            });
+        }
+        assertTrue(threadsDone.await(120, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "transfers failed: " + failures);
+        assertTrue(shardedEngine.awaitPersisted(Duration.ofSeconds(30)));
+        assertEquals(0, BigDecimal.valueOf(2020).compareTo(balanceOf(BANK_ACCOUNT_NUMBER).add(balanceOf(BANK_ACCOUNT_NUMBER_SECOND))));
+        var ledgerTotal = bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).stream()
+                .map(t -> t.getFlow() == MoneyFlow.IN ? t.getAmount() : t.getAmount().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, ledgerTotal.compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+    }
+
+    @Test
+    public void journalLeftByACrashIsReplayedOnce(@TempDir Path directory) throws IOException, InterruptedException {
+        var accountId = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().getId();
+        var entry = new LedgerEntry(UUID.randomUUID(), LedgerEntry.DEPOSIT, accountId, null, BigDecimal.valueOf(5), MoneyFlow.IN, System.currentTimeMillis());
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.awaitDurable(journal.append(List.of(entry)));
+        }
+        var segments = new ArrayList<Path>();
+        try (var files = Files.list(directory)) {
+            files.forEach(segments::add);
+        }
+        var copy = Files.createDirectory(directory.resolve("copy"));
+        for (var segment : segments) {
+            Files.copy(segment, copy.resolve(segment.getFileName()));
+        }
+
+        // the second recovery replays the same record, as after a crash during the first one
+        for (var journalDirectory : List.of(directory, copy)) {
+            var journal = new TransactionJournal(journalDirectory, 1 << 16, 0);
+            var writer = new AsyncLedgerWriter(jdbcTemplate, journal, 500, 5, 1000, 100_000);
+            writer.shutdown();
+            journal.close();
+        }
+
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(balanceOf(BANK_ACCOUNT_NUMBER)));
+        assertEquals(2, bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).size());
+    }
+
+    private BigDecimal balanceOf(String accountNumber) {
+        return bankAccountRepository.findByAccountNumber(accountNumber).get().getBalance();
+    }
+}
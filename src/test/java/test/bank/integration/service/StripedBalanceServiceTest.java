@@ -0,0 +1,168 @@
+package test.bank.integration.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferOrder;
+import test.bank.exception.BankApplicationBadRequestException;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.repository.BankAccountBucketRepository;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.repository.DepositTransactionRepository;
+import test.bank.service.interfaces.AccountManagementService;
+import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StripedBalanceServiceTest {
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankAccountBucketRepository bankAccountBucketRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private AccountTransactionsService accountTransactionsService;
+    @Autowired
+    private AccountManagementService accountManagementService;
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+
+    @AfterEach
+    public void cleanUp() {
+        bankTransactionRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        var bankAccount1 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount1, MoneyFlow.IN));
+
+        var bankAccount2 = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
+        depositTransactionRepository.save(new DepositTransaction(BigDecimal.TEN, System.currentTimeMillis(), bankAccount2, MoneyFlow.IN));
+
+        stripedBalanceService.enableStriping(BANK_ACCOUNT_NUMBER, 4);
+    }
+
+    @Test
+    public void enableStripingCreatesBuckets() {
+        var account = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get();
+
+        assertEquals(4, account.getStripes());
+        assertEquals(4, bankAccountBucketRepository.findAllByBankAccountId(account.getId()).size());
+        assertThrows(BankApplicationBadRequestException.class, () -> stripedBalanceService.enableStriping(BANK_ACCOUNT_NUMBER, 2));
+    }
+
+    @Test
+    public void depositGoesToBucket() {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        // the main row is untouched, the read path adds the buckets
+        assertEquals(0, BigDecimal.TEN.compareTo(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(accountManagementService.getByAccountNumber(BANK_ACCOUNT_NUMBER).getBalance()));
+    }
+
+    @Test
+    public void withdrawSweepsBucketsIntoMainRow() {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        // no single bucket holds 11, so the debit falls back to the sweep
+        accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(11));
+
+        var account = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get();
+        assertEquals(0, BigDecimal.ONE.compareTo(account.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(bankAccountBucketRepository.sumBalance(account.getId())));
+    }
+
+    @Test
+    public void withdrawNegativeBalance() {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        assertThrows(BankApplicationNegativeBalanceException.class,
+                () -> accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(12)));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(accountManagementService.getByAccountNumber(BANK_ACCOUNT_NUMBER).getBalance()));
+    }
+
+    @Test
+    public void transferBatchUsesBuckets() {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        var results = accountTransactionsService.transferBatch(List.of(
+                // only reachable with the buckets: 10 in the main row, 2 in buckets
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(11)),
+                new TransferOrder(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(5)),
+                new TransferOrder(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.valueOf(3))
+        ));
+
+        assertTrue(results.get(0).isSuccess());
+        assertInstanceOf(BankApplicationNegativeBalanceException.class, results.get(1).getError());
+        assertTrue(results.get(2).isSuccess());
+
+        var account = bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER).get();
+        assertEquals(0, BigDecimal.ONE.compareTo(account.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(3).compareTo(bankAccountBucketRepository.sumBalance(account.getId())));
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(accountManagementService.getByAccountNumber(BANK_ACCOUNT_NUMBER).getBalance()));
+        assertEquals(0, BigDecimal.valueOf(18).compareTo(accountManagementService.getByAccountNumber(BANK_ACCOUNT_NUMBER_SECOND).getBalance()));
+    }
+
+    @Test
+    public void concurrentTransfersKeepBalanceAndLedgerInSync() throws InterruptedException {
+        accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.valueOf(1000));
+
+        int numberOfThreads = 8;
+        int operationsPerThread = 50;
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var threadsDone = new CountDownLatch(numberOfThreads);
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            var incoming = i % 2 == 0;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < operationsPerThread; j++) {
+                        if (incoming) {
+                            accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+                        } else {
+                            accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+                        }
+                    }
+                } catch (BankApplicationNegativeBalanceException e) {
+                    // withdrawals may overtake the incoming transfers
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    threadsDone.countDown();
+                }
+            });
+        }
+        assertTrue(threadsDone.await(120, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertTrue(failures.isEmpty(), () -> "operations failed: " + failures);
+        var ledgerTotal = bankTransactionRepository.findAllByBankAccountAccountNumber(BANK_ACCOUNT_NUMBER).stream()
+                .map(t -> t.getFlow() == MoneyFlow.IN ? t.getAmount() : t.getAmount().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, ledgerTotal.compareTo(accountManagementService.getByAccountNumber(BANK_ACCOUNT_NUMBER).getBalance()));
+    }
+}
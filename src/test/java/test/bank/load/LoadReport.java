@@ -0,0 +1,59 @@
+package test.bank.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class LoadReport {
+    private final long[] latenciesNanos;
+    private final long elapsedNanos;
+    private final Map<String, Long> outcomes;
+
+    public LoadReport(long[] latenciesNanos, long elapsedNanos, Map<String, Long> outcomes) {
+        this.latenciesNanos = latenciesNanos.clone();
+        Arrays.sort(this.latenciesNanos);
+        this.elapsedNanos = elapsedNanos;
+        this.outcomes = new TreeMap<>(outcomes);
+    }
+
+    public long requests() {
+        return latenciesNanos.length;
+    }
+
+    public double throughputPerSecond() {
+        return requests() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double percentileMillis(double percentile) {
+        if (latenciesNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latenciesNanos.length) - 1;
+        return latenciesNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    public long count(String outcome) {
+        return outcomes.getOrDefault(outcome, 0L);
+    }
+
+    public double rate(String outcome) {
+        return requests() == 0 ? 0 : (double) count(outcome) / requests();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("""
+                        requests:     %d in %.1f s
+                        throughput:   %.1f req/s
+                        latency p50:  %.2f ms
+                        latency p99:  %.2f ms
+                        latency p999: %.2f ms
+                        lock timeout: %.3f %%
+                        outcomes:     %s""",
+                requests(), elapsedNanos / 1_000_000_000.0,
+                throughputPerSecond(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+                rate(TransactionLoadTest.LOCK_TIMEOUT) * 100,
+                outcomes);
+    }
+}
@@ -0,0 +1,255 @@
+package test.bank.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import test.bank.repository.BankAccountRepository;
+import test.bank.repository.BankTransactionRepository;
+import test.bank.service.ShardedAccountTransactionsServiceImpl;
+import test.bank.service.interfaces.AccountManagementService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with ./gradlew loadTest, tune with -Dload.threads=64 -Dload.requests=100000 -Dload.hot-ratio=0.9 ...
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TransactionLoadTest {
+    static final String OK = "ok";
+    static final String LOCK_TIMEOUT = "lock_timeout";
+    static final String TRANSPORT_ERROR = "transport_error";
+
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000);
+
+    private final int threads = Integer.getInteger("load.threads", 32);
+    private final int requests = Integer.getInteger("load.requests", 20_000);
+    private final int accountCount = Integer.getInteger("load.accounts", 100);
+    // the first hot-accounts accounts receive hot-ratio of all picks, the rest is spread uniformly
+    private final int hotAccounts = Integer.getInteger("load.hot-accounts", 2);
+    private final double hotRatio = Double.parseDouble(System.getProperty("load.hot-ratio", "0.5"));
+    private final double transferRatio = Double.parseDouble(System.getProperty("load.transfer-ratio", "0.6"));
+    private final double depositRatio = Double.parseDouble(System.getProperty("load.deposit-ratio", "0.2"));
+    // stripes per hot account, 0 leaves them as plain single-row accounts
+    private final int hotAccountStripes = Integer.getInteger("load.hot-account-stripes", 0);
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private AccountManagementService accountManagementService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private BankTransactionRepository bankTransactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ObjectProvider<ShardedAccountTransactionsServiceImpl> shardedEngine;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterEach
+    public void cleanUp() throws InterruptedException {
+        var engine = shardedEngine.getIfAvailable();
+        if (engine != null) {
+            engine.evictAll();
+        }
+        bankTransactionRepository.deleteAllInBatch();
+        bankAccountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void mixedTransactionLoad() throws Exception {
+        var accounts = new ArrayList<String>();
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(accountManagementService.createBankAccount(INITIAL_BALANCE).getAccountNumber());
+        }
+        var expectedTotal = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accountCount));
+        if (hotAccountStripes > 0) {
+            for (int i = 0; i < Math.min(hotAccounts, accountCount); i++) {
+                var outcome = post("/api/admin/accounts/" + accounts.get(i) + "/striping?stripes=" + hotAccountStripes, "");
+                assertEquals(OK, outcome);
+            }
+        }
+
+        var depositedUnits = new LongAdder();
+        var withdrawnUnits = new LongAdder();
+        var outcomes = new ConcurrentHashMap<String, AtomicLong>();
+        var remaining = new AtomicLong(requests);
+
+        var executor = Executors.newFixedThreadPool(threads);
+        var workers = new ArrayList<Future<long[]>>();
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                var latencies = new long[requests];
+                int completed = 0;
+                while (remaining.getAndDecrement() > 0) {
+                    var random = ThreadLocalRandom.current();
+                    long amount = random.nextLong(1, 11);
+                    double operation = random.nextDouble();
+                    String path;
+                    String body;
+                    if (operation < transferRatio) {
+                        var sender = pick(accounts);
+                        var receiver = pick(accounts);
+                        while (receiver.equals(sender)) {
+                            receiver = accounts.get(random.nextInt(accounts.size()));
+                        }
+                        path = "/api/transaction/transfer";
+                        body = "{\"senderAccountNumber\":\"" + sender + "\",\"receiverAccountNumber\":\"" + receiver + "\",\"amount\":" + amount + "}";
+                    } else if (operation < transferRatio + depositRatio) {
+                        path = "/api/transaction/deposit";
+                        body = "{\"accountNumber\":\"" + pick(accounts) + "\",\"amount\":" + amount + "}";
+                    } else {
+                        path = "/api/transaction/withdraw";
+                        body = "{\"accountNumber\":\"" + pick(accounts) + "\",\"amount\":" + amount + "}";
+                    }
+
+                    long requestStarted = System.nanoTime();
+                    var outcome = post(path, body);
+                    latencies[completed++] = System.nanoTime() - requestStarted;
+                    outcomes.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+
+                    if (outcome.equals(OK) && path.endsWith("/deposit")) {
+                        depositedUnits.add(amount);
+                    } else if (outcome.equals(OK) && path.endsWith("/withdraw")) {
+                        withdrawnUnits.add(amount);
+                    }
+                }
+                return Arrays.copyOf(latencies, completed);
+            }));
+        }
+
+        var allLatencies = new ArrayList<long[]>();
+        for (var worker : workers) {
+            allLatencies.add(worker.get());
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        var report = new LoadReport(merge(allLatencies), elapsed, toCounts(outcomes));
+        System.out.printf("""
+                        load test: threads=%d accounts=%d hot-accounts=%d hot-account-stripes=%d hot-ratio=%.2f transfer-ratio=%.2f deposit-ratio=%.2f
+                        server: java=%s request-threads=%s connection-limit=%s
+                        %s
+                        """,
+                threads, accountCount, hotAccounts, hotAccountStripes, hotRatio, transferRatio, depositRatio,
+                Runtime.version().feature(), Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform",
+                environment.getProperty("app.bank.connection-limit.enabled", "false"), report);
+
+        // a request lost in transit has an unknown outcome, the totals below could not be checked
+        assertEquals(0, report.count(TRANSPORT_ERROR));
+        // the sharded engine answers before its ledger rows are written
+        var engine = shardedEngine.getIfAvailable();
+        if (engine != null) {
+            assertTrue(engine.awaitPersisted(Duration.ofMinutes(1)), "ledger backlog was not written");
+        }
+        expectedTotal = expectedTotal
+                .add(BigDecimal.valueOf(depositedUnits.sum()))
+                .subtract(BigDecimal.valueOf(withdrawnUnits.sum()));
+        assertEquals(0, expectedTotal.compareTo(totalBalance()), "money is not conserved");
+        assertEquals(0, BigDecimal.ZERO.compareTo(transferLedgerBalance()), "transfer legs do not cancel out");
+        assertEquals(List.of(), accountsNotMatchingLedger());
+    }
+
+    private String pick(List<String> accounts) {
+        var random = ThreadLocalRandom.current();
+        if (hotAccounts > 0 && random.nextDouble() < hotRatio) {
+            return accounts.get(random.nextInt(Math.min(hotAccounts, accounts.size())));
+        }
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private String post(String path, String body) {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return switch (response.statusCode()) {
+                case 200 -> OK;
+                case 503 -> LOCK_TIMEOUT;
+                default -> "http_" + response.statusCode();
+            };
+        } catch (IOException e) {
+            return TRANSPORT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TRANSPORT_ERROR;
+        }
+    }
+
+    private BigDecimal totalBalance() {
+        // striped accounts hold part of their balance in bank_account_bucket
+        return jdbcTemplate.queryForObject("""
+                SELECT (SELECT COALESCE(SUM(balance), 0) FROM bank_account)
+                           + (SELECT COALESCE(SUM(balance), 0) FROM bank_account_bucket)""", BigDecimal.class);
+    }
+
+    private BigDecimal transferLedgerBalance() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(CASE WHEN flow = 'IN' THEN amount ELSE -amount END), 0)
+                FROM bank_transaction
+                WHERE type = 'T'""", BigDecimal.class);
+    }
+
+    private List<String> accountsNotMatchingLedger() {
+        return jdbcTemplate.queryForList("""
+                SELECT a.account_number
+                FROM bank_account a
+                         LEFT JOIN (SELECT bank_account_id, SUM(CASE WHEN flow = 'IN' THEN amount ELSE -amount END) AS total
+                                    FROM bank_transaction
+                                    GROUP BY bank_account_id) l ON l.bank_account_id = a.id
+                         LEFT JOIN (SELECT bank_account_id, SUM(balance) AS total
+                                    FROM bank_account_bucket
+                                    GROUP BY bank_account_id) b ON b.bank_account_id = a.id
+                WHERE a.balance + COALESCE(b.total, 0) <> COALESCE(l.total, 0)""", String.class);
+    }
+
+    private static long[] merge(List<long[]> latencies) {
+        var merged = new long[latencies.stream().mapToInt(l -> l.length).sum()];
+        int offset = 0;
+        for (var part : latencies) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        return merged;
+    }
+
+    private static Map<String, Long> toCounts(Map<String, AtomicLong> outcomes) {
+        var counts = new HashMap<String, Long>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+        return counts;
+    }
+}
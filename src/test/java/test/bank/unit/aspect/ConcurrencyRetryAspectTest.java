@@ -0,0 +1,102 @@
+package test.bank.unit.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.aspect.ConcurrencyRetryAspect;
+import test.bank.aspect.RetryOnConcurrencyFailure;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.exception.BankApplicationNotFoundException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyRetryAspectTest {
+    private SimpleMeterRegistry meterRegistry;
+    private FlakyOperation target;
+    private Operation proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new FlakyOperation();
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ConcurrencyRetryAspect(meterRegistry, 3, 1, 2, 5000));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void retriesUntilSuccess() {
+        target.failures = 2;
+
+        assertEquals("done", proxy.run());
+        assertEquals(3, target.calls.get());
+        assertEquals(2, meterRegistry.get("bank.transaction.retries").tag("operation", "run").counter().count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        target.failures = 10;
+
+        var ex = assertThrows(BankApplicationConcurrencyException.class, proxy::run);
+        assertInstanceOf(CannotAcquireLockException.class, ex.getCause());
+        assertEquals(3, target.calls.get());
+        assertEquals(1, meterRegistry.get("bank.transaction.retry.exhausted").counter().count());
+    }
+
+    @Test
+    void givesUpAtDeadline() {
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ConcurrencyRetryAspect(meterRegistry, 100, 1, 2, 0));
+        Operation proxy = factory.getProxy();
+        target.failures = 10;
+
+        assertThrows(BankApplicationConcurrencyException.class, proxy::run);
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void otherExceptionsAreNotRetried() {
+        target.failure = new BankApplicationNotFoundException("missing");
+        target.failures = 1;
+
+        assertThrows(BankApplicationNotFoundException.class, proxy::run);
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void noRetryInsideCallerTransaction() {
+        target.failures = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(PessimisticLockingFailureException.class, proxy::run);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, target.calls.get());
+    }
+
+    public interface Operation {
+        String run();
+    }
+
+    @RetryOnConcurrencyFailure
+    public static class FlakyOperation implements Operation {
+        private final AtomicInteger calls = new AtomicInteger();
+        private int failures;
+        private RuntimeException failure = new CannotAcquireLockException("lock timeout");
+
+        @Override
+        public String run() {
+            if (calls.incrementAndGet() <= failures) {
+                throw failure;
+            }
+            return "done";
+        }
+    }
+}
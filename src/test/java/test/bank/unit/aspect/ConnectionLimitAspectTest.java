@@ -0,0 +1,83 @@
+package test.bank.unit.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import test.bank.aspect.ConnectionLimitAspect;
+import test.bank.exception.BankApplicationConcurrencyException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimitAspectTest {
+    private SimpleMeterRegistry meterRegistry;
+    private BlockingOperation target;
+    private Operation proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new BlockingOperation();
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ConnectionLimitAspect(meterRegistry, 1, 50));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void rejectsWhenAllPermitsAreTaken() throws Exception {
+        var holder = CompletableFuture.supplyAsync(proxy::run);
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BankApplicationConcurrencyException.class, proxy::run);
+        assertEquals(1, meterRegistry.get("bank.connection-limit.rejected").counter().count());
+
+        target.release.countDown();
+        assertEquals("done", holder.get(5, TimeUnit.SECONDS));
+        assertEquals("done", proxy.run());
+    }
+
+    @Test
+    void nestedCallsDoNotTakeAPermit() throws Exception {
+        var holder = CompletableFuture.supplyAsync(proxy::run);
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("done", proxy.run());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            target.release.countDown();
+        }
+        assertEquals("done", holder.get(5, TimeUnit.SECONDS));
+    }
+
+    public interface Operation {
+        String run();
+    }
+
+    public static class BlockingOperation implements Operation {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        @Transactional
+        public String run() {
+            // only the first caller blocks, until the test releases it
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "done";
+        }
+    }
+}
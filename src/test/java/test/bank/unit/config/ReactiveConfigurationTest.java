@@ -0,0 +1,21 @@
+package test.bank.unit.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import test.bank.config.ReactiveConfiguration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveConfigurationTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"sharded", "conditional-update", "optimistic"})
+    void onlyLockingModeIsAccepted(String balanceMode) {
+        assertThrows(IllegalStateException.class, () -> new ReactiveConfiguration(balanceMode));
+    }
+
+    @Test
+    void lockingModeStarts() {
+        assertDoesNotThrow(() -> new ReactiveConfiguration("locking"));
+    }
+}
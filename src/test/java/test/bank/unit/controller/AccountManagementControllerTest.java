@@ -14,6 +14,7 @@ import test.bank.domain.banking.BankAccount;
 import test.bank.dto.request.bankAccount.BankAccountCreateRequestDto;
 import test.bank.dto.response.bankAccount.BankAccountResponseDto;
 import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.service.EndpointLatencyRecorder;
 import test.bank.service.interfaces.AccountManagementService;
 
 import java.math.BigDecimal;
@@ -36,6 +37,8 @@ class AccountManagementControllerTest {
 
     @MockBean
     private AccountManagementService accountManagementService;
+    @MockBean
+    private EndpointLatencyRecorder endpointLatencyRecorder;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -56,7 +59,7 @@ class AccountManagementControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value(expected.getAccountNumber()))
-                .andExpect(jsonPath("$.balance").value(expected.getBalance()));
+                .andExpect(jsonPath("$.balance").value(expected.getBalance().toString()));
 
         verify(accountManagementService, times(1)).createBankAccount(initialBalance);
         verifyNoMoreInteractions(accountManagementService);
@@ -1,5 +1,6 @@
 package test.bank.unit.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,23 +10,32 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import test.bank.controller.AccountTransactionController;
 import test.bank.domain.banking.BankAccount;
 import test.bank.domain.banking.transaction.DepositTransaction;
 import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.domain.banking.transaction.TransferBatchResult;
 import test.bank.domain.banking.transaction.TransferTransaction;
 import test.bank.domain.banking.transaction.WithdrawTransaction;
 import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.request.transaction.TransferBatchRequestDto;
 import test.bank.dto.request.transaction.TransferTransactionRequestDto;
 import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferBatchItemResponseDto;
 import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+import test.bank.exception.BankApplicationNegativeBalanceException;
+import test.bank.service.EndpointLatencyRecorder;
+import test.bank.service.interfaces.AccountStatementService;
 import test.bank.service.interfaces.AccountTransactionsService;
 import test.bank.util.TimeUtil;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -39,6 +49,10 @@ public class AccountTransactionControllerTest {
 
     @MockBean
     private AccountTransactionsService accountTransactionsService;
+    @MockBean
+    private AccountStatementService accountStatementService;
+    @MockBean
+    private EndpointLatencyRecorder endpointLatencyRecorder;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -65,6 +79,62 @@ public class AccountTransactionControllerTest {
         verifyNoMoreInteractions(accountTransactionsService);
     }
 
+    @Test
+    void transferBatchSuccess() throws Exception {
+        var timestamp = TimeUtil.currentTimeMillis();
+        var dto = new TransferBatchRequestDto(List.of(
+                new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE),
+                new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER_SECOND, BANK_ACCOUNT_NUMBER, BigDecimal.TEN)
+        ));
+
+        var entity = new TransferTransaction(UUID.randomUUID(), BigDecimal.ONE, timestamp, new BankAccount(UUID.randomUUID(), BigDecimal.TEN, BANK_ACCOUNT_NUMBER), MoneyFlow.OUT, new BankAccount(UUID.randomUUID(), BigDecimal.TEN, BANK_ACCOUNT_NUMBER_SECOND));
+        when(accountTransactionsService.transferBatch(anyList())).thenReturn(List.of(
+                TransferBatchResult.success(entity),
+                TransferBatchResult.failure(new BankApplicationNegativeBalanceException("sender does not have enough money: " + BANK_ACCOUNT_NUMBER_SECOND))
+        ));
+
+        var resp = mockMvc.perform(post("/api/transaction/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        var dtoResp = objectMapper.readValue(resp.getContentAsString(), new TypeReference<List<TransferBatchItemResponseDto>>() {
+        });
+
+        assertEquals(2, dtoResp.size());
+        assertEquals(new TransferBatchItemResponseDto(0, true, TransferTransactionResponseDto.of(entity), null), dtoResp.get(0));
+        assertEquals(new TransferBatchItemResponseDto(1, false, null, "sender does not have enough money: " + BANK_ACCOUNT_NUMBER_SECOND), dtoResp.get(1));
+        verify(accountTransactionsService, times(1)).transferBatch(anyList());
+        verifyNoMoreInteractions(accountTransactionsService);
+    }
+
+    @Test
+    void transferBatchValidationErrorItem() throws Exception {
+        var dto = new TransferBatchRequestDto(List.of(
+                new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE),
+                new TransferTransactionRequestDto("000111000111000A", BANK_ACCOUNT_NUMBER, BigDecimal.ONE)
+        ));
+
+        mockMvc.perform(post("/api/transaction/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountTransactionsService);
+    }
+
+    @Test
+    void transferBatchValidationErrorEmpty() throws Exception {
+        mockMvc.perform(post("/api/transaction/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferBatchRequestDto(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountTransactionsService);
+        verify(endpointLatencyRecorder).record(eq(AccountTransactionController.class.getMethod("transferBatch", TransferBatchRequestDto.class)),
+                isA(MethodArgumentNotValidException.class), anyLong());
+    }
+
     @Test
     void withdrawSuccess() throws Exception {
         var timestamp = TimeUtil.currentTimeMillis();
@@ -85,6 +155,7 @@ public class AccountTransactionControllerTest {
         assertEquals(expected, dtoResp);
         verify(accountTransactionsService, times(1)).withdraw(dto.getAccountNumber(), dto.getAmount());
         verifyNoMoreInteractions(accountTransactionsService);
+        verify(endpointLatencyRecorder).record(eq(AccountTransactionController.class.getMethod("withdraw", TransactionRequestDto.class)), isNull(), anyLong());
     }
 
     @Test
@@ -135,7 +206,7 @@ public class AccountTransactionControllerTest {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = {"-1"})
+    @ValueSource(strings = {"-1", "1.234"})
     void transferValidationErrorAmount(String malfromedAmoun) throws Exception {
         var dto = new TransferTransactionRequestDto(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, new BigDecimal(malfromedAmoun));
 
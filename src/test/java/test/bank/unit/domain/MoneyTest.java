@@ -0,0 +1,63 @@
+package test.bank.unit.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.Money;
+import test.bank.exception.BankApplicationBadRequestException;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "0.01", "-0.05", "12.3", "1234.50", "92233720368547758.07", "-92233720368547758.08"})
+    void formatMatchesBigDecimal(String amount) {
+        var value = new BigDecimal(amount);
+
+        assertEquals(value.setScale(Money.SCALE).toPlainString(), Money.of(value).toString());
+        assertEquals(0, value.compareTo(Money.of(value).toBigDecimal()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0.001", "1.005", "92233720368547758.08"})
+    void fractionsOfACentAndOverflowAreRejected(String amount) {
+        assertThrows(BankApplicationBadRequestException.class, () -> Money.toMinorUnits(new BigDecimal(amount)));
+    }
+
+    @Test
+    void jsonRoundTrip() throws Exception {
+        var json = objectMapper.writeValueAsString(Money.ofMinorUnits(123450));
+
+        assertEquals("\"1234.50\"", json);
+        assertEquals(Money.ofMinorUnits(123450), objectMapper.readValue(json, Money.class));
+        assertEquals(Money.ofMinorUnits(1230), objectMapper.readValue("12.3", Money.class));
+        assertEquals(Money.ofMinorUnits(-5), objectMapper.readValue("\"-0.05\"", Money.class));
+        assertEquals(Money.ofMinorUnits(1200), objectMapper.readValue("12", Money.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"1.005\"", "\"1.2.3\"", "\"\"", "\"-\"", "\"1e3\"", "1.005"})
+    void malformedJsonIsRejected(String json) {
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue(json, Money.class));
+    }
+
+    @Test
+    void accountArithmeticStaysInCents() {
+        var account = new BankAccount(new BigDecimal("10.05"), "0001110001110001");
+
+        assertTrue(account.covers(1005));
+        assertFalse(account.covers(1006));
+        account.debit(5);
+        account.credit(250);
+
+        assertEquals(1250, account.getBalanceMinorUnits());
+        assertEquals(new BigDecimal("12.50"), account.getBalance());
+    }
+}
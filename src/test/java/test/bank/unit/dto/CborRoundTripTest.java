@@ -0,0 +1,72 @@
+package test.bank.unit.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.dto.request.bankAccount.BankAccountCreateRequestDto;
+import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.request.transaction.TransferBatchRequestDto;
+import test.bank.dto.request.transaction.TransferTransactionRequestDto;
+import test.bank.dto.response.bankAccount.BankAccountPageResponseDto;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.transaction.StatementEntryResponseDto;
+import test.bank.dto.response.transaction.StatementPageResponseDto;
+import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferBatchItemResponseDto;
+import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborRoundTripTest {
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @MethodSource("dtos")
+    void roundTrip(Object dto) throws Exception {
+        var cbor = cborMapper.writeValueAsBytes(dto);
+
+        var decoded = cborMapper.readValue(cbor, dto.getClass());
+
+        assertEquals(jsonMapper.writeValueAsString(dto), jsonMapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    void batchRequestIsSmallerThanJson() throws Exception {
+        var batch = new TransferBatchRequestDto(IntStream.range(0, 1000)
+                .mapToObj(i -> new TransferTransactionRequestDto("0001110001110001", "0001110001110002", BigDecimal.valueOf(i + 1, 2)))
+                .toList());
+
+        assertTrue(cborMapper.writeValueAsBytes(batch).length < jsonMapper.writeValueAsBytes(batch).length);
+    }
+
+    static List<Object> dtos() {
+        var transfer = new TransferTransactionResponseDto(100L, new BigDecimal("12.50"), "0001110001110001", MoneyFlow.OUT, "0001110001110002");
+        var account = new BankAccountResponseDto(new UUID(1, 2), new BigDecimal("1234.50"), "0001110001110001");
+        var entry = new StatementEntryResponseDto(new UUID(3, 4), 100L, transfer.getAmount(), MoneyFlow.IN, "TRANSFER", "0001110001110002");
+        return List.of(
+                new BankAccountCreateRequestDto(new BigDecimal("10.00")),
+                new TransactionRequestDto("0001110001110001", new BigDecimal("0.01")),
+                new TransferTransactionRequestDto("0001110001110001", "0001110001110002", BigDecimal.ONE),
+                new TransferBatchRequestDto(IntStream.range(0, 100)
+                        .mapToObj(i -> new TransferTransactionRequestDto("0001110001110001", "0001110001110002", BigDecimal.valueOf(i + 1)))
+                        .toList()),
+                account,
+                new BankAccountPageResponseDto(List.of(account, account), "0001110001110001"),
+                new TransactionResponseDto(100L, BigDecimal.TEN, "0001110001110001", MoneyFlow.IN),
+                transfer,
+                entry,
+                new StatementPageResponseDto(List.of(entry, entry), null),
+                new TransferBatchItemResponseDto(0, true, transfer, null),
+                new TransferBatchItemResponseDto(1, false, null, "sender does not have enough money: 0001110001110001")
+        );
+    }
+}
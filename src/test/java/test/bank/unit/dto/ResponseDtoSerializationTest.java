@@ -0,0 +1,65 @@
+package test.bank.unit.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.dto.response.bankAccount.BankAccountResponseDto;
+import test.bank.dto.response.transaction.TransactionResponseDto;
+import test.bank.dto.response.transaction.TransferBatchItemResponseDto;
+import test.bank.dto.response.transaction.TransferTransactionResponseDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseDtoSerializationTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bankAccount() throws Exception {
+        var id = new UUID(1, 2);
+        var dto = new BankAccountResponseDto(id, new BigDecimal("1234.5"), "0001110001110001");
+
+        var json = objectMapper.writeValueAsString(dto);
+
+        assertEquals("{\"id\":\"" + id + "\",\"balance\":\"1234.50\",\"accountNumber\":\"0001110001110001\"}", json);
+        assertEquals(dto, objectMapper.readValue(json, BankAccountResponseDto.class));
+    }
+
+    @Test
+    void transaction() throws Exception {
+        var dto = new TransactionResponseDto(100L, BigDecimal.ONE, "0001110001110001", MoneyFlow.IN);
+
+        var json = objectMapper.writeValueAsString(dto);
+
+        assertEquals("{\"timestamp\":100,\"amount\":\"1.00\",\"bankAccountNumber\":\"0001110001110001\",\"flow\":\"IN\"}", json);
+        assertEquals(dto, objectMapper.readValue(json, TransactionResponseDto.class));
+    }
+
+    @Test
+    void transferTransactionKeepsItsOwnField() throws Exception {
+        var dto = new TransferTransactionResponseDto(100L, new BigDecimal("0.05"), "0001110001110001", MoneyFlow.OUT, "0001110001110002");
+
+        var json = objectMapper.writeValueAsString(dto);
+
+        assertEquals("{\"timestamp\":100,\"amount\":\"0.05\",\"bankAccountNumber\":\"0001110001110001\",\"flow\":\"OUT\",\"visavisAccountNumber\":\"0001110001110002\"}", json);
+        assertEquals("0001110001110002", objectMapper.readValue(json, TransferTransactionResponseDto.class).getVisavisAccountNumber());
+    }
+
+    @Test
+    void emptyDtoWritesNulls() throws Exception {
+        assertEquals("{\"timestamp\":null,\"amount\":null,\"bankAccountNumber\":null,\"flow\":null}", objectMapper.writeValueAsString(new TransactionResponseDto()));
+        assertEquals("{\"id\":null,\"balance\":null,\"accountNumber\":null}", objectMapper.writeValueAsString(new BankAccountResponseDto()));
+    }
+
+    @Test
+    void nestedInBatchAndLists() throws Exception {
+        var transfer = new TransferTransactionResponseDto(100L, BigDecimal.TEN, "0001110001110001", MoneyFlow.OUT, "0001110001110002");
+
+        var json = objectMapper.writeValueAsString(List.of(new TransferBatchItemResponseDto(0, true, transfer, null)));
+
+        assertEquals("[{\"index\":0,\"success\":true,\"transaction\":{\"timestamp\":100,\"amount\":\"10.00\",\"bankAccountNumber\":\"0001110001110001\",\"flow\":\"OUT\",\"visavisAccountNumber\":\"0001110001110002\"}}]", json);
+    }
+}
@@ -0,0 +1,218 @@
+package test.bank.unit.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.journal.TransactionJournal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+    private static final UUID ACCOUNT = new UUID(1, 1);
+    private static final UUID VISAVIS = new UUID(2, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsSurviveReopen() throws Exception {
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.awaitDurable(journal.append(List.of(entry(1, null, new BigDecimal("10.50")))));
+            journal.awaitDurable(journal.append(List.of(entry(2, VISAVIS, new BigDecimal("0.01")), entry(3, VISAVIS, new BigDecimal("0.01")))));
+        }
+
+        var replayed = replay(directory);
+
+        assertEquals(2, replayed.size());
+        assertEquals(new BigDecimal("10.50"), replayed.get(0).get(0).getAmount());
+        assertNull(replayed.get(0).get(0).getVisavisId());
+        assertEquals(2, replayed.get(1).size());
+        assertEquals(VISAVIS, replayed.get(1).get(1).getVisavisId());
+        assertEquals(MoneyFlow.OUT, replayed.get(1).get(1).getFlow());
+    }
+
+    @Test
+    void replayedSegmentsAreDiscarded() throws Exception {
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.awaitDurable(journal.append(List.of(entry(1, null, BigDecimal.ONE))));
+        }
+
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.replay(entries -> {
+            });
+            journal.discardRecovered();
+        }
+
+        assertEquals(List.of(), replay(directory));
+    }
+
+    @Test
+    void tornTailEndsTheLog() throws Exception {
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.append(List.of(entry(1, null, BigDecimal.ONE)));
+            journal.awaitDurable(journal.append(List.of(entry(2, null, BigDecimal.TEN))));
+        }
+        // flip a byte in the payload of the second record, as if its page never reached the disk
+        try (var file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            long secondPayload = recordEnd(file) + 8;
+            file.seek(secondPayload);
+            int value = file.read();
+            file.seek(secondPayload);
+            file.write(value ^ 0xFF);
+        }
+
+        var replayed = replay(directory);
+
+        assertEquals(1, replayed.size());
+        assertEquals(new UUID(0, 1), replayed.get(0).get(0).getId());
+    }
+
+    @Test
+    void sealedSegmentsAreDroppedAtCheckpoint() throws Exception {
+        try (var journal = new TransactionJournal(directory, 1024, 0)) {
+            long position = 0;
+            for (int i = 0; i < 50; i++) {
+                position = journal.append(List.of(entry(i, null, BigDecimal.ONE)));
+            }
+            journal.awaitDurable(position);
+            assertTrue(segmentCount() > 2);
+
+            journal.checkpoint(position);
+
+            assertEquals(1, segmentCount());
+        }
+    }
+
+    @Test
+    void concurrentAppendsShareFsyncs() throws Exception {
+        int threads = 8;
+        int appendsPerThread = 200;
+        var done = new CountDownLatch(threads);
+        try (var journal = new TransactionJournal(directory, 1 << 20, 200)) {
+            for (int t = 0; t < threads; t++) {
+                int offset = t * appendsPerThread;
+                new Thread(() -> {
+                    try {
+                        for (int i = 0; i < appendsPerThread; i++) {
+                            journal.awaitDurable(journal.append(List.of(entry(offset + i, null, BigDecimal.ONE))));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            assertTrue(done.await(60, TimeUnit.SECONDS));
+        }
+
+        assertEquals(threads * appendsPerThread, replay(directory).size());
+    }
+
+    // SIGKILL of the writer: every acknowledged record must be replayed, and nothing but whole records
+    @Test
+    void killedWriterLosesNoAcknowledgedRecord() throws Exception {
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                JournalWriterProcess.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .start();
+
+        var acknowledged = new HashSet<UUID>();
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while (acknowledged.size() < 2_000 && (line = reader.readLine()) != null) {
+                if (line.startsWith(JournalWriterProcess.ACK)) {
+                    acknowledged.add(UUID.fromString(line.substring(JournalWriterProcess.ACK.length())));
+                }
+            }
+            process.destroyForcibly();
+            assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertEquals(2_000, acknowledged.size(), "writer process ended before enough appends");
+
+        var replayedIds = new ArrayList<UUID>();
+        for (var record : replay(directory)) {
+            assertEquals(2, record.size(), "a record was split");
+            replayedIds.add(record.get(0).getId());
+        }
+
+        assertEquals(replayedIds.size(), Set.copyOf(replayedIds).size());
+        assertTrue(replayedIds.containsAll(acknowledged));
+    }
+
+    private static List<List<LedgerEntry>> replay(Path directory) throws IOException {
+        var records = new ArrayList<List<LedgerEntry>>();
+        try (var journal = new TransactionJournal(directory, 1 << 16, 0)) {
+            journal.replay(records::add);
+        }
+        return records;
+    }
+
+    // end of the first record: header plus the payload length stored in it
+    private static long recordEnd(RandomAccessFile file) throws IOException {
+        file.seek(0);
+        return 8 + file.readInt();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static LedgerEntry entry(long sequence, UUID visavis, BigDecimal amount) {
+        return new LedgerEntry(new UUID(0, sequence), visavis == null ? LedgerEntry.DEPOSIT : LedgerEntry.TRANSFER,
+                ACCOUNT, visavis, amount, visavis == null || sequence % 2 == 0 ? MoneyFlow.IN : MoneyFlow.OUT, sequence);
+    }
+
+    // appends transfer records from several threads and prints each id once its fsync returned
+    public static class JournalWriterProcess {
+        static final String ACK = "acked ";
+
+        public static void main(String[] args) throws Exception {
+            var journal = new TransactionJournal(Path.of(args[0]), 1 << 16, 100);
+            for (int t = 0; t < 4; t++) {
+                long offset = t * 1_000_000L;
+                new Thread(() -> {
+                    try {
+                        for (long i = offset; ; i++) {
+                            var id = new UUID(1, i);
+                            journal.awaitDurable(journal.append(List.of(
+                                    new LedgerEntry(id, LedgerEntry.TRANSFER, ACCOUNT, VISAVIS, BigDecimal.ONE, MoneyFlow.OUT, i),
+                                    new LedgerEntry(new UUID(2, i), LedgerEntry.TRANSFER, VISAVIS, ACCOUNT, BigDecimal.ONE, MoneyFlow.IN, i))));
+                            synchronized (System.out) {
+                                System.out.println(ACK + id);
+                                System.out.flush();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }).start();
+            }
+        }
+    }
+}
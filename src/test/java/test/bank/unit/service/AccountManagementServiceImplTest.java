@@ -1,5 +1,6 @@
 package test.bank.unit.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,8 +10,11 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 import test.bank.domain.banking.BankAccount;
 import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.exception.BankApplicationBadRequestException;
 import test.bank.exception.BankApplicationException;
 import test.bank.exception.BankApplicationNegativeBalanceException;
 import test.bank.exception.BankApplicationNotFoundException;
@@ -18,6 +22,7 @@ import test.bank.repository.BankAccountRepository;
 import test.bank.service.AccountManagementServiceImpl;
 import test.bank.service.interfaces.AccountNumberGeneratorService;
 import test.bank.service.interfaces.AccountTransactionsService;
+import test.bank.service.interfaces.StripedBalanceService;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -37,9 +42,17 @@ class AccountManagementServiceImplTest {
     private AccountNumberGeneratorService accountNumberGeneratorService;
     @Mock
     private AccountTransactionsService accountTransactionsService;
+    @Mock
+    private StripedBalanceService stripedBalanceService;
     @InjectMocks
     private AccountManagementServiceImpl service;
     private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+    private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxPageSize", 1000);
+    }
 
     @ParameterizedTest
     @ValueSource(strings = {"0"})
@@ -105,6 +118,36 @@ class AccountManagementServiceImplTest {
         assertArrayEquals(expected.toArray(), returned.toArray());
     }
 
+    @Test
+    void findPageReturnsCursorWhenMoreAccountsExist() {
+        var first = new BankAccount(UUID.randomUUID(), BigDecimal.ZERO, BANK_ACCOUNT_NUMBER);
+        var second = new BankAccount(UUID.randomUUID(), BigDecimal.ZERO, BANK_ACCOUNT_NUMBER_SECOND);
+        when(bankAccountRepository.findByAccountNumberGreaterThanOrderByAccountNumberAsc("", Limit.of(2))).thenReturn(List.of(first, second));
+
+        var page = service.findPage(null, 1);
+
+        assertEquals(List.of(first), page.getAccounts());
+        assertEquals(BANK_ACCOUNT_NUMBER, page.getNextCursor());
+    }
+
+    @Test
+    void findPageLastPageHasNoCursor() {
+        var second = new BankAccount(UUID.randomUUID(), BigDecimal.ZERO, BANK_ACCOUNT_NUMBER_SECOND);
+        when(bankAccountRepository.findByAccountNumberGreaterThanOrderByAccountNumberAsc(BANK_ACCOUNT_NUMBER, Limit.of(2))).thenReturn(List.of(second));
+
+        var page = service.findPage(BANK_ACCOUNT_NUMBER, 1);
+
+        assertEquals(List.of(second), page.getAccounts());
+        assertNull(page.getNextCursor());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 1001})
+    void findPageInvalidSize(int size) {
+        assertThrows(BankApplicationBadRequestException.class, () -> service.findPage(null, size));
+        verifyNoInteractions(bankAccountRepository);
+    }
+
     @Test
     void getByAccountNumberNotFound() {
         when(bankAccountRepository.findByAccountNumber(BANK_ACCOUNT_NUMBER)).thenReturn(Optional.empty());
@@ -0,0 +1,72 @@
+package test.bank.unit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.bank.repository.BankAccountRepository;
+import test.bank.service.AccountNumberGeneratorServiceImpl;
+import test.bank.util.LuhnUtil;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberGeneratorServiceImplTest {
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void generatesUniqueCheckedNumbersFromReservedBlocks() {
+        when(bankAccountRepository.findAccountNumberBlockSize()).thenReturn(100L);
+        when(bankAccountRepository.reserveAccountNumberBlock()).thenReturn(1L, 101L, 201L);
+        var service = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 16, 42);
+
+        var generated = new HashSet<String>();
+        for (int i = 0; i < 250; i++) {
+            var accountNumber = service.generateAccountNumber();
+            assertEquals(16, accountNumber.length());
+            assertTrue(LuhnUtil.isValid(accountNumber), accountNumber);
+            generated.add(accountNumber);
+        }
+
+        assertEquals(250, generated.size());
+        verify(bankAccountRepository, times(3)).reserveAccountNumberBlock();
+        verify(bankAccountRepository, times(1)).findAccountNumberBlockSize();
+    }
+
+    @Test
+    void blockSizeFollowsSequenceIncrement() {
+        when(bankAccountRepository.findAccountNumberBlockSize()).thenReturn(10L);
+        when(bankAccountRepository.reserveAccountNumberBlock()).thenReturn(1L, 11L, 21L);
+        var service = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 16, 42);
+
+        for (int i = 0; i < 25; i++) {
+            service.generateAccountNumber();
+        }
+
+        verify(bankAccountRepository, times(3)).reserveAccountNumberBlock();
+    }
+
+    @Test
+    void numbersDependOnKey() {
+        when(bankAccountRepository.findAccountNumberBlockSize()).thenReturn(100L);
+        when(bankAccountRepository.reserveAccountNumberBlock()).thenReturn(1L);
+
+        var first = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 16, 42).generateAccountNumber();
+        var second = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 16, 43).generateAccountNumber();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void exhaustedNumberSpace() {
+        when(bankAccountRepository.findAccountNumberBlockSize()).thenReturn(100L);
+        when(bankAccountRepository.reserveAccountNumberBlock()).thenReturn(100L);
+        var service = new AccountNumberGeneratorServiceImpl(bankAccountRepository, 3, 42);
+
+        assertThrows(IllegalStateException.class, service::generateAccountNumber);
+    }
+}
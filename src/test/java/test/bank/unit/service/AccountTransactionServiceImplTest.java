@@ -1,19 +1,26 @@
 package test.bank.unit.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import test.bank.domain.banking.BankAccount;
 import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNotFoundException;
 import test.bank.repository.BankAccountRepository;
 import test.bank.repository.BankTransactionRepository;
 import test.bank.repository.DepositTransactionRepository;
 import test.bank.repository.TransferTransactionRepository;
 import test.bank.service.AccountTransactionsServiceImpl;
+import test.bank.service.ContentionProfiler;
+import test.bank.service.TransactionMetrics;
+import test.bank.service.interfaces.StripedBalanceService;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,6 +39,11 @@ public class AccountTransactionServiceImplTest {
     private TransferTransactionRepository transferTransactionRepository;
     @Mock
     private BankTransactionRepository bankTransactionRepository;
+    @Mock
+    private StripedBalanceService stripedBalanceService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private TransactionMetrics transactionMetrics = new TransactionMetrics(meterRegistry, new ContentionProfiler(1, 16));
     private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
     private final String BANK_ACCOUNT_NUMBER_SECOND = "0001110001110002";
 
@@ -44,7 +56,7 @@ public class AccountTransactionServiceImplTest {
 
         accountTransactionsService.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
 
-        assertEquals(initialBalance.add(BigDecimal.ONE), bankAccount.getBalance());
+        assertEquals(0, initialBalance.add(BigDecimal.ONE).compareTo(bankAccount.getBalance()));
         verify(bankAccountRepository, times(1)).save(any());
         verify(bankTransactionRepository, times(1)).save(any());
         verifyNoMoreInteractions(bankTransactionRepository);
@@ -60,7 +72,7 @@ public class AccountTransactionServiceImplTest {
 
         accountTransactionsService.withdraw(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
 
-        assertEquals(initialBalance.subtract(BigDecimal.ONE), bankAccount.getBalance());
+        assertEquals(0, initialBalance.subtract(BigDecimal.ONE).compareTo(bankAccount.getBalance()));
         verify(bankAccountRepository, times(1)).save(any());
         verify(bankTransactionRepository, times(1)).save(any());
         verifyNoMoreInteractions(bankTransactionRepository);
@@ -75,18 +87,35 @@ public class AccountTransactionServiceImplTest {
         var initialBalance2 = BigDecimal.ZERO;
         var bankAccount2 = new BankAccount(initialBalance2, BANK_ACCOUNT_NUMBER_SECOND);
 
-        when(bankAccountRepository.getByAccountNumber(BANK_ACCOUNT_NUMBER)).thenReturn(Optional.of(bankAccount));
-        when(bankAccountRepository.getByAccountNumber(BANK_ACCOUNT_NUMBER_SECOND)).thenReturn(Optional.of(bankAccount2));
+        when(bankAccountRepository.getAllByAccountNumberInOrderById(List.of(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND))).thenReturn(List.of(bankAccount2, bankAccount));
 
         accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
-        assertEquals(initialBalance.subtract(BigDecimal.ONE), bankAccount.getBalance());
-        assertEquals(initialBalance2.add(BigDecimal.ONE), bankAccount2.getBalance());
+        assertEquals(0, initialBalance.subtract(BigDecimal.ONE).compareTo(bankAccount.getBalance()));
+        assertEquals(0, initialBalance2.add(BigDecimal.ONE).compareTo(bankAccount2.getBalance()));
         verify(bankAccountRepository, times(2)).save(any());
         verify(bankTransactionRepository, times(2)).save(any());
+        assertEquals(1, meterRegistry.get(TransactionMetrics.PHASE).tag("operation", "transfer").tag("phase", "lock").timer().count());
         verifyNoMoreInteractions(bankTransactionRepository);
         verifyNoMoreInteractions(bankAccountRepository);
     }
 
+    @Test
+    public void transferReceiverNotFound() {
+        var bankAccount = new BankAccount(BigDecimal.ONE, BANK_ACCOUNT_NUMBER);
+
+        when(bankAccountRepository.getAllByAccountNumberInOrderById(List.of(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND))).thenReturn(List.of(bankAccount));
+
+        assertThrowsExactly(BankApplicationNotFoundException.class, () -> {
+                    accountTransactionsService.transfer(BANK_ACCOUNT_NUMBER, BANK_ACCOUNT_NUMBER_SECOND, BigDecimal.ONE);
+                }
+        );
+        assertEquals(0, BigDecimal.ONE.compareTo(bankAccount.getBalance()));
+        verify(bankAccountRepository, times(1)).getAllByAccountNumberInOrderById(any());
+        assertEquals(1, meterRegistry.get(TransactionMetrics.REJECTED).tag("reason", "not-found").counter().count());
+        verifyNoMoreInteractions(bankAccountRepository);
+        verifyNoInteractions(bankTransactionRepository);
+    }
+
     @Test
     public void depositNegative() {
         assertThrowsExactly(BankApplicationException.class, () -> {
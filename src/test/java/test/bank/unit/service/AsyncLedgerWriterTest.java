@@ -0,0 +1,84 @@
+package test.bank.unit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import test.bank.domain.banking.transaction.LedgerEntry;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.journal.TransactionJournal;
+import test.bank.service.AsyncLedgerWriter;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncLedgerWriterTest {
+    private static final UUID ACCOUNT = new UUID(1, 1);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @TempDir
+    Path directory;
+
+    @Test
+    void shutdownWithDatabaseDownKeepsJournal() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenThrow(new DataAccessResourceFailureException("database is down"));
+        int operations = 50;
+        try (var journal = new TransactionJournal(directory, 1024, 0)) {
+            var writer = new AsyncLedgerWriter(jdbcTemplate, journal, 500, 5, 10, 100_000);
+            long position = 0;
+            for (int i = 0; i < operations; i++) {
+                position = writer.submit(List.of(entry(i)));
+            }
+            writer.awaitDurable(position);
+            verify(jdbcTemplate, timeout(5_000).atLeastOnce()).update(anyString(), any(PreparedStatementSetter.class));
+
+            writer.shutdown();
+
+            assertEquals(operations, writer.backlog());
+        }
+
+        var replayed = new ArrayList<List<LedgerEntry>>();
+        try (var journal = new TransactionJournal(directory, 1024, 0)) {
+            journal.replay(replayed::add);
+        }
+        assertEquals(operations, replayed.size());
+        try (var files = Files.list(directory)) {
+            assertTrue(files.count() > 2);
+        }
+    }
+
+    @Test
+    void fullBacklogRejectsOperations() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenThrow(new DataAccessResourceFailureException("database is down"));
+        var writer = new AsyncLedgerWriter(jdbcTemplate, null, 500, 5, 10, 3);
+        try {
+            writer.submit(List.of(entry(1), entry(2)));
+            writer.submit(List.of(entry(3)));
+
+            assertThrows(BankApplicationConcurrencyException.class, () -> writer.submit(List.of(entry(4))));
+            assertEquals(3, writer.backlog());
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private static LedgerEntry entry(long sequence) {
+        return new LedgerEntry(new UUID(0, sequence), LedgerEntry.DEPOSIT, ACCOUNT, null, BigDecimal.ONE, MoneyFlow.IN, sequence);
+    }
+}
@@ -0,0 +1,41 @@
+package test.bank.unit.service;
+
+import org.junit.jupiter.api.Test;
+import test.bank.service.ContentionProfiler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentionProfilerTest {
+    @Test
+    void mergesStripesAndRanksByWaitTime() throws InterruptedException {
+        var profiler = new ContentionProfiler(4, 16);
+        int threads = 8;
+        var done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    profiler.record("hot", 100);
+                    profiler.record("warm-" + (i % 4), 10);
+                    profiler.record("cold-" + i, 1);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+
+        var top = profiler.top(3);
+
+        assertEquals("hot", top.get(0).key());
+        // dropped counts the records of every key skipped under contention, not only the hot one
+        long hits = top.get(0).hits();
+        assertTrue(hits <= threads * 10_000L, "hits " + hits);
+        assertTrue(hits >= threads * 10_000L - profiler.dropped(), "hits " + hits + ", dropped " + profiler.dropped());
+        assertTrue(top.get(1).key().startsWith("warm-"));
+
+        profiler.reset();
+        assertEquals(0, profiler.top(3).size());
+    }
+}
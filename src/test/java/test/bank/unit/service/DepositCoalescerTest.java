@@ -0,0 +1,151 @@
+package test.bank.unit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import test.bank.domain.banking.BankAccount;
+import test.bank.domain.banking.transaction.DepositTransaction;
+import test.bank.domain.banking.transaction.MoneyFlow;
+import test.bank.exception.BankApplicationConcurrencyException;
+import test.bank.exception.BankApplicationException;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.service.DepositCoalescer;
+import test.bank.service.interfaces.AccountTransactionsService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepositCoalescerTest {
+    @Mock
+    private AccountTransactionsService accountTransactionsService;
+    private DepositCoalescer coalescer;
+    private final String BANK_ACCOUNT_NUMBER = "0001110001110001";
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new DepositCoalescer(accountTransactionsService, 50_000, 3, 1, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void depositsWithinWindowShareOneCall() {
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).then(invocation -> toTransactions(invocation.getArgument(1)));
+
+        var first = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+        var second = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.TEN);
+
+        assertEquals(0, BigDecimal.ONE.compareTo(first.join().getAmount()));
+        assertEquals(0, BigDecimal.TEN.compareTo(second.join().getAmount()));
+        verify(accountTransactionsService, times(1)).depositAll(BANK_ACCOUNT_NUMBER, List.of(BigDecimal.ONE, BigDecimal.TEN));
+        verify(accountTransactionsService, never()).deposit(any(), any());
+    }
+
+    @Test
+    void fullBatchIsFlushedWithoutWaitingForWindow() {
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).then(invocation -> toTransactions(invocation.getArgument(1)));
+
+        var futures = List.of(
+                coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE),
+                coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE),
+                coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE),
+                coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.TEN));
+
+        futures.forEach(future -> assertNotNull(future.join()));
+        verify(accountTransactionsService).depositAll(BANK_ACCOUNT_NUMBER, List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE));
+        verify(accountTransactionsService).depositAll(BANK_ACCOUNT_NUMBER, List.of(BigDecimal.TEN));
+    }
+
+    @Test
+    void failureReachesEveryCaller() {
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).thenThrow(new BankApplicationNotFoundException("missing"));
+
+        var first = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+
+        assertThrows(BankApplicationNotFoundException.class, () -> coalescer.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.TEN));
+        assertTrue(first.isCompletedExceptionally());
+    }
+
+    @Test
+    void errorReachesEveryCaller() {
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).thenThrow(new OutOfMemoryError("test"));
+
+        var first = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+        var second = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.TEN);
+
+        var thrown = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(OutOfMemoryError.class, thrown.getCause());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    void callerGivesUpAfterTimeout() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return toTransactions(invocation.getArgument(1));
+        });
+        var coalescer = new DepositCoalescer(accountTransactionsService, 1_000, 3, 1, 100);
+        try {
+            assertThrows(BankApplicationConcurrencyException.class, () -> coalescer.deposit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE));
+        } finally {
+            release.countDown();
+            coalescer.shutdown();
+        }
+    }
+
+    @Test
+    void invalidAmountIsRejectedBeforeBatching() {
+        assertThrows(BankApplicationException.class, () -> coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ZERO));
+        assertThrows(BankApplicationException.class, () -> coalescer.submit(BANK_ACCOUNT_NUMBER, new BigDecimal("1.001")));
+        verifyNoInteractions(accountTransactionsService);
+    }
+
+    @Test
+    void blockedAccountDoesNotHoldBackOthers() throws Exception {
+        var otherAccountNumber = "0001110001110002";
+        var release = new CountDownLatch(1);
+        when(accountTransactionsService.depositAll(eq(BANK_ACCOUNT_NUMBER), anyList())).then(invocation -> {
+            // waits as if the row lock was held elsewhere
+            release.await(5, TimeUnit.SECONDS);
+            return toTransactions(invocation.getArgument(1));
+        });
+        when(accountTransactionsService.depositAll(eq(otherAccountNumber), anyList())).then(invocation -> toTransactions(invocation.getArgument(1)));
+        var coalescer = new DepositCoalescer(accountTransactionsService, 1_000, 3, 2, 5_000);
+        try {
+            var blocked = coalescer.submit(BANK_ACCOUNT_NUMBER, BigDecimal.ONE);
+            var other = coalescer.submit(otherAccountNumber, BigDecimal.ONE);
+
+            assertNotNull(other.get(2, TimeUnit.SECONDS));
+            assertFalse(blocked.isDone());
+            release.countDown();
+            assertNotNull(blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            coalescer.shutdown();
+        }
+    }
+
+    private List<DepositTransaction> toTransactions(List<BigDecimal> amounts) {
+        var account = new BankAccount(BigDecimal.ZERO, BANK_ACCOUNT_NUMBER);
+        return amounts.stream()
+                .map(amount -> new DepositTransaction(amount, System.currentTimeMillis(), account, MoneyFlow.IN))
+                .toList();
+    }
+}
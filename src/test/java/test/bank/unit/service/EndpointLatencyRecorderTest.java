@@ -0,0 +1,91 @@
+package test.bank.unit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import test.bank.controller.AccountTransactionController;
+import test.bank.dto.request.transaction.TransactionRequestDto;
+import test.bank.dto.response.latency.EndpointLatencyResponseDto;
+import test.bank.exception.BankApplicationNotFoundException;
+import test.bank.service.EndpointLatencyRecorder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointLatencyRecorderTest {
+    private final EndpointLatencyRecorder recorder = new EndpointLatencyRecorder(TimeUnit.SECONDS.toMicros(60), 3);
+    private Method withdraw;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        withdraw = AccountTransactionController.class.getMethod("withdraw", TransactionRequestDto.class);
+        recorder.register(Map.of(withdraw, "POST /api/transaction/withdraw"));
+    }
+
+    @Test
+    void splitsByOutcomeOfTheAdvice() {
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record(withdraw, null, TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        recorder.record(withdraw, new BankApplicationNotFoundException("account not found"), TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.record(withdraw, new IllegalStateException(), TimeUnit.MILLISECONDS.toNanos(7));
+        recorder.recordUnhandled(withdraw, TimeUnit.MINUTES.toNanos(5));
+
+        var snapshot = recorder.snapshot();
+
+        var byOutcome = snapshot.getEndpoints().stream()
+                .collect(Collectors.toMap(EndpointLatencyResponseDto::getOutcome, latency -> latency));
+        assertTrue(snapshot.getEndpoints().stream().allMatch(latency -> latency.getEndpoint().equals("POST /api/transaction/withdraw")));
+        assertEquals(4, byOutcome.size());
+        var success = byOutcome.get(EndpointLatencyRecorder.SUCCESS);
+        assertEquals(1000, success.getCount());
+        assertEquals(500, success.getP50Micros(), 1);
+        assertEquals(999, success.getP999Micros(), 1);
+        assertEquals(1000, success.getMaxMicros(), 1);
+        assertEquals(1, byOutcome.get("bankApplicationNotFoundException").getCount());
+        assertEquals(1, byOutcome.get("throwable").getCount());
+        // clamped to the highest trackable value
+        assertEquals(TimeUnit.SECONDS.toMicros(60), byOutcome.get(EndpointLatencyRecorder.UNHANDLED).getMaxMicros(), TimeUnit.SECONDS.toMicros(60) / 1000);
+        assertTrue(snapshot.getFromMillis() <= snapshot.getToMillis());
+    }
+
+    @Test
+    void snapshotsCoverOneInterval() {
+        recorder.record(withdraw, null, 1000);
+        var first = recorder.snapshot();
+
+        var second = recorder.snapshot();
+
+        assertEquals(1, first.getEndpoints().size());
+        assertTrue(second.getEndpoints().isEmpty());
+        assertEquals(first.getToMillis(), second.getFromMillis());
+    }
+
+    @Test
+    void ignoresOtherHandlers() throws NoSuchMethodException {
+        recorder.record(AccountTransactionController.class.getMethod("deposit", TransactionRequestDto.class), null, 1000);
+
+        assertTrue(recorder.snapshot().getEndpoints().isEmpty());
+    }
+
+    @Test
+    void recordingDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 100_000; i++) {
+            recorder.record(withdraw, null, i);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            recorder.record(withdraw, null, i);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // a few bytes of slack for the measurement itself
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+}
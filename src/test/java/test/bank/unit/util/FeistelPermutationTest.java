@@ -0,0 +1,34 @@
+package test.bank.unit.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import test.bank.util.FeistelPermutation;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeistelPermutationTest {
+    @ParameterizedTest
+    @ValueSource(longs = {2, 10, 1000, 4096, 100_000})
+    void permutationIsBijective(long domain) {
+        var permutation = new FeistelPermutation(domain, 42);
+        var seen = new BitSet((int) domain);
+
+        for (long i = 0; i < domain; i++) {
+            var permuted = permutation.permute(i);
+            assertTrue(permuted >= 0 && permuted < domain);
+            assertFalse(seen.get((int) permuted), "duplicate value " + permuted);
+            seen.set((int) permuted);
+        }
+    }
+
+    @Test
+    void valueOutsideDomain() {
+        var permutation = new FeistelPermutation(1000, 42);
+
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(1000));
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+    }
+}
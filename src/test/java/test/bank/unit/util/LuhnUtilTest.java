@@ -0,0 +1,20 @@
+package test.bank.unit.util;
+
+import org.junit.jupiter.api.Test;
+import test.bank.util.LuhnUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LuhnUtilTest {
+    @Test
+    void checkDigit() {
+        assertEquals(3, LuhnUtil.checkDigit(7992739871L));
+    }
+
+    @Test
+    void isValid() {
+        assertTrue(LuhnUtil.isValid("79927398713"));
+        assertFalse(LuhnUtil.isValid("79927398710"));
+        assertTrue(LuhnUtil.isValid("0000000000000000"));
+    }
+}
@@ -0,0 +1,54 @@
+package test.bank.unit.util;
+
+import org.junit.jupiter.api.Test;
+import test.bank.util.SpaceSavingSketch;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+    @Test
+    void exactWhileUnderCapacity() {
+        var sketch = new SpaceSavingSketch(4);
+        sketch.add("a", 5);
+        sketch.add("b", 1);
+        sketch.add("a", 2);
+
+        var counters = sketch.counters();
+
+        assertEquals(2, counters.size());
+        var a = counters.stream().filter(c -> c.key().equals("a")).findFirst().orElseThrow();
+        assertEquals(7, a.weight());
+        assertEquals(2, a.hits());
+        assertEquals(0, a.error());
+    }
+
+    @Test
+    void heavyKeysSurviveManyLightOnes() {
+        var sketch = new SpaceSavingSketch(32);
+        var random = new Random(42);
+        var exact = new HashMap<String, Long>();
+        long total = 0;
+        for (int i = 0; i < 200_000; i++) {
+            // two hot accounts among a long tail of 100 000
+            var key = i % 4 == 0 ? "hot-1" : i % 4 == 1 ? "hot-2" : "cold-" + random.nextInt(100_000);
+            long weight = 1 + random.nextInt(1000);
+            sketch.add(key, weight);
+            exact.merge(key, weight, Long::sum);
+            total += weight;
+        }
+
+        assertEquals(32, sketch.size());
+        for (var counter : sketch.counters()) {
+            long actual = exact.get(counter.key());
+            assertTrue(counter.weight() >= actual, counter.key());
+            assertTrue(counter.weight() - counter.error() <= actual, counter.key());
+            assertTrue(counter.error() <= total / 32, counter.key());
+        }
+        var keys = sketch.counters().stream().map(SpaceSavingSketch.Counter::key).toList();
+        assertTrue(keys.contains("hot-1"));
+        assertTrue(keys.contains("hot-2"));
+    }
+}